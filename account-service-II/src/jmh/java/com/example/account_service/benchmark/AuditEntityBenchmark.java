@@ -0,0 +1,52 @@
+package com.example.account_service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.account_service.audit.ApiCallLogEntity;
+import com.example.account_service.util.RestClientUtilDummy;
+
+/**
+ * Construction of an audit row in ApiCallLogService, as done for every upstream call.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditEntityBenchmark {
+
+    private static final String REQUEST_PAYLOAD = "{\"transactionId\":\"TX-BENCH-1\",\"fkn\":\"FKN-1234567\","
+            + "\"productCode\":\"BCA\",\"customerType\":\"NATURAL_PERSON\",\"channel\":\"digital-banking\"}";
+    private static final String RESPONSE_BODY = "{\"status\": \"success\", \"message\": \"SCHUFA Check passed successfully\"}";
+
+    private BenchmarkFixtures fixtures;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures(new RestClientUtilDummy(null), true, false);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public ApiCallLogEntity createLog() {
+        return fixtures.apiCallLogService.createLog("TX-BENCH-1", "schufa-check", "FKN-1234567", "BCA",
+                "200 OK", REQUEST_PAYLOAD, RESPONSE_BODY);
+    }
+}
@@ -0,0 +1,86 @@
+package com.example.account_service.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.account_service.AccountServiceApplication;
+import com.example.account_service.audit.ApiCallLogEntity;
+import com.example.account_service.audit.ApiCallLogService;
+
+/**
+ * Persisting a burst of audit rows one save per row versus a single saveAll, which Hibernate sends as
+ * JDBC batches with pooled sequence ids. Unlike the other benchmarks this one needs a PostgreSQL
+ * database; the connection defaults to application.yml and can be overridden, e.g.
+ * -Djmh.args="AuditWrite -jvmArgsAppend -Dspring.datasource.url=jdbc:postgresql://db:5432/account".
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuditWriteBenchmark {
+
+    private static final String REQUEST_PAYLOAD = "{\"transactionId\":\"TX-BENCH-1\",\"fkn\":\"FKN-1234567\","
+            + "\"productCode\":\"BCA\",\"customerType\":\"NATURAL_PERSON\",\"channel\":\"digital-banking\"}";
+    private static final String RESPONSE_BODY = "{\"status\": \"success\", \"message\": \"SCHUFA Check passed successfully\"}";
+
+    @Param({ "saveEach", "saveAll" })
+    public String mode;
+
+    // Audit rows written per operation
+    @Param({ "100" })
+    public int rows;
+
+    private ConfigurableApplicationContext context;
+    private ApiCallLogService apiCallLogService;
+
+    @Setup
+    public void setUp() {
+        context = new SpringApplicationBuilder(AccountServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("account-service.audit.mode=sync", "spring.jpa.show-sql=false")
+                .run();
+        apiCallLogService = context.getBean(ApiCallLogService.class);
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public int write() {
+        if ("saveAll".equals(mode)) {
+            List<ApiCallLogEntity> logs = new ArrayList<>(rows);
+            for (int i = 0; i < rows; i++) {
+                logs.add(apiCallLogService.createLog("TX-BENCH-" + i, "schufa-check", "FKN-1234567", "BCA",
+                        "200 OK", REQUEST_PAYLOAD, RESPONSE_BODY));
+            }
+            apiCallLogService.logApiResponses(logs);
+        } else {
+            for (int i = 0; i < rows; i++) {
+                apiCallLogService.logApiResponse("TX-BENCH-" + i, "schufa-check", "FKN-1234567", "BCA",
+                        "200 OK", REQUEST_PAYLOAD, RESPONSE_BODY);
+            }
+        }
+        return rows;
+    }
+}
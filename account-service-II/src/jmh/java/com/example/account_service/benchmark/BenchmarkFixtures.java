@@ -0,0 +1,163 @@
+package com.example.account_service.benchmark;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.util.List;
+
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.env.PropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.example.account_service.audit.ApiCallLogEntity;
+import com.example.account_service.audit.ApiCallLogRepository;
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.checkpoint.OnboardingCheckpointService;
+import com.example.account_service.config.AuditProperties;
+import com.example.account_service.config.CaseIdProperties;
+import com.example.account_service.config.CheckpointProperties;
+import com.example.account_service.config.FeatureExecutionProperties;
+import com.example.account_service.config.ProductCatalog;
+import com.example.account_service.config.ProductConfig;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.features.builder.FeatureOrderBuilder;
+import com.example.account_service.features.engine.FeatureExecutionEngine;
+import com.example.account_service.features.factory.ProductFeatureFactory;
+import com.example.account_service.features.impl.AccountOpeningFeatureImpl;
+import com.example.account_service.features.impl.OnlineBankingActivationFeatureImpl;
+import com.example.account_service.features.impl.PinActivationFeatureImpl;
+import com.example.account_service.features.impl.SchufaCheckFeatureImpl;
+import com.example.account_service.outbox.CaseOutbox;
+import com.example.account_service.services.OnboardingService;
+import com.example.account_service.services.OrinocoCaseManagementService;
+import com.example.account_service.services.factory.ProductServiceFactory;
+import com.example.account_service.services.impl.LegalEntityProductService;
+import com.example.account_service.services.impl.NaturalPersonProductService;
+import com.example.account_service.util.CaseIdGenerator;
+import com.example.account_service.util.OnboardingMetrics;
+import com.example.account_service.util.PayloadCodec;
+import com.example.account_service.util.RestClientUtilDummy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The onboarding object graph wired by hand, without a Spring context or database: upstream calls
+ * go to {@link RestClientUtilDummy} and audit rows are built but not persisted.
+ */
+public final class BenchmarkFixtures {
+
+    public final ObjectMapper objectMapper;
+    public final PayloadCodec payloadCodec;
+    public final OnboardingMetrics onboardingMetrics;
+    public final ProductConfig productConfig;
+    public final ProductCatalog productCatalog;
+    public final ApiCallLogService apiCallLogService;
+    public final FeatureOrderBuilder featureOrderBuilder;
+    public final TaskExecutorFactory taskExecutorFactory;
+    public final FeatureExecutionEngine featureExecutionEngine;
+    public final NaturalPersonProductService naturalPersonProductService;
+    public final LegalEntityProductService legalEntityProductService;
+    public final OnboardingService onboardingService;
+    public final CaseIdGenerator caseIdGenerator;
+
+    /**
+     * @param restClientUtil  The upstream simulator, e.g. a subclass adding latency.
+     * @param parallel        Whether independent features run concurrently.
+     * @param virtualThreads  Whether internal executors use virtual threads (Java 21+ only).
+     */
+    public BenchmarkFixtures(RestClientUtilDummy restClientUtil, boolean parallel, boolean virtualThreads) {
+        this.objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        this.payloadCodec = new PayloadCodec(objectMapper);
+        this.onboardingMetrics = new OnboardingMetrics(new SimpleMeterRegistry());
+        this.productConfig = loadProductConfig();
+        this.productCatalog = new ProductCatalog(productConfig);
+
+        AuditProperties auditProperties = new AuditProperties();
+        auditProperties.setMode(AuditProperties.Mode.SYNC);
+        this.apiCallLogService = new ApiCallLogService(discardingRepository(), null, auditProperties, onboardingMetrics);
+
+        ProductFeatureFactory featureFactory = new ProductFeatureFactory(
+                new AccountOpeningFeatureImpl(restClientUtil, apiCallLogService, payloadCodec),
+                new PinActivationFeatureImpl(restClientUtil, apiCallLogService, payloadCodec),
+                new OnlineBankingActivationFeatureImpl(restClientUtil, apiCallLogService, payloadCodec),
+                new SchufaCheckFeatureImpl(restClientUtil, apiCallLogService, payloadCodec));
+        this.featureOrderBuilder = new FeatureOrderBuilder(productCatalog, featureFactory);
+
+        FeatureExecutionProperties executionProperties = new FeatureExecutionProperties();
+        executionProperties.setParallel(parallel);
+        this.taskExecutorFactory = new TaskExecutorFactory(
+                new MockEnvironment().withProperty("spring.threads.virtual.enabled", String.valueOf(virtualThreads)));
+        CheckpointProperties checkpointProperties = new CheckpointProperties();
+        checkpointProperties.setEnabled(false);
+        this.featureExecutionEngine = new FeatureExecutionEngine(executionProperties, taskExecutorFactory, onboardingMetrics,
+                new OnboardingCheckpointService(null, checkpointProperties));
+
+        // Cases are neither stored nor delivered
+        CaseOutbox caseOutbox = new CaseOutbox(null, apiCallLogService, payloadCodec) {
+            @Override
+            public void enqueue(OnboardingContext context, String caseId, String payload) {
+            }
+        };
+        CaseIdProperties caseIdProperties = new CaseIdProperties();
+        caseIdProperties.setNodeId(1);
+        this.caseIdGenerator = new CaseIdGenerator(caseIdProperties);
+        OrinocoCaseManagementService caseManagementService =
+                new OrinocoCaseManagementService(caseOutbox, caseIdGenerator, payloadCodec, onboardingMetrics);
+        this.naturalPersonProductService =
+                new NaturalPersonProductService(caseManagementService, featureOrderBuilder, featureExecutionEngine);
+        this.legalEntityProductService =
+                new LegalEntityProductService(caseManagementService, featureOrderBuilder, featureExecutionEngine);
+        this.onboardingService = new OnboardingService(
+                new ProductServiceFactory(naturalPersonProductService, legalEntityProductService),
+                productCatalog, apiCallLogService, payloadCodec, onboardingMetrics);
+    }
+
+    public static OnboardingRequest request(String productCode, int customerType, String simulateFailure,
+                                            String failureTarget) {
+        return new OnboardingRequest("TX-BENCH-1", "FKN-1234567", productCode, simulateFailure, failureTarget,
+                true, true, customerType);
+    }
+
+    public void close() {
+        taskExecutorFactory.shutdown();
+    }
+
+    private static ProductConfig loadProductConfig() {
+        try {
+            List<PropertySource<?>> sources = new YamlPropertySourceLoader()
+                    .load("product-config", new ClassPathResource("product-config.yml"));
+            StandardEnvironment environment = new StandardEnvironment();
+            sources.forEach(environment.getPropertySources()::addLast);
+            return Binder.get(environment).bind("account-service", ProductConfig.class).get();
+        } catch (IOException e) {
+            throw new IllegalStateException("Unable to load product-config.yml", e);
+        }
+    }
+
+    // Repository that accepts rows without writing them anywhere
+    private static ApiCallLogRepository discardingRepository() {
+        return (ApiCallLogRepository) Proxy.newProxyInstance(
+                ApiCallLogRepository.class.getClassLoader(),
+                new Class<?>[] { ApiCallLogRepository.class },
+                (proxy, method, args) -> {
+                    if (method.getName().equals("save") && args[0] instanceof ApiCallLogEntity) {
+                        return args[0];
+                    }
+                    if (method.getName().equals("saveAll")) {
+                        return args[0];
+                    }
+                    if (method.getDeclaringClass() == Object.class) {
+                        return method.getName().equals("equals") ? proxy == args[0]
+                                : method.getName().equals("hashCode") ? System.identityHashCode(proxy)
+                                : "DiscardingApiCallLogRepository";
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.account_service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.account_service.config.CaseIdProperties;
+import com.example.account_service.util.CaseIdGenerator;
+
+/**
+ * Case ID generation from one thread and from eight threads sharing the generator, against the
+ * former "CASE-" + System.currentTimeMillis(), which is cheaper but collides within a millisecond.
+ * Beyond 4096 IDs per millisecond the generator runs ahead of the clock rather than waiting, so
+ * the contended score shows the cost of the compare-and-set retries only. Run with -prof gc to see
+ * that the string is the only allocation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CaseIdGeneratorBenchmark {
+
+    private CaseIdGenerator generator;
+
+    @Setup
+    public void setUp() {
+        CaseIdProperties properties = new CaseIdProperties();
+        properties.setNodeId(1);
+        generator = new CaseIdGenerator(properties);
+    }
+
+    @Benchmark
+    public long nextId() {
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public String nextCaseId() {
+        return generator.nextCaseId();
+    }
+
+    @Benchmark
+    @Threads(8)
+    public String nextCaseIdContended() {
+        return generator.nextCaseId();
+    }
+
+    @Benchmark
+    public String currentTimeMillisCaseId() {
+        return "CASE-" + System.currentTimeMillis();
+    }
+}
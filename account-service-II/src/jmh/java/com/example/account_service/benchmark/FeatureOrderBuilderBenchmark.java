@@ -0,0 +1,62 @@
+package com.example.account_service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.account_service.config.ProductCatalog;
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.features.builder.ExecutionPlan;
+import com.example.account_service.util.RestClientUtilDummy;
+
+/**
+ * Compiling an execution plan (dependency resolution and topological sort) versus looking up the
+ * plan precompiled at startup, which is what a request does.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FeatureOrderBuilderBenchmark {
+
+    @Param({ "BrandA-BCA", "BrandB-FF" })
+    public String product;
+
+    private BenchmarkFixtures fixtures;
+    private ProductCatalog.Entry catalogEntry;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures(new RestClientUtilDummy(null), true, false);
+        String[] parts = product.split("-");
+        catalogEntry = fixtures.productCatalog.find(parts[0], parts[1]);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public ExecutionPlan buildFeatureOrder() {
+        return fixtures.featureOrderBuilder.buildFeatureOrder(catalogEntry, CustomerType.NATURAL_PERSON);
+    }
+
+    @Benchmark
+    public ExecutionPlan getExecutionPlan() {
+        return fixtures.featureOrderBuilder.getExecutionPlan(catalogEntry, CustomerType.NATURAL_PERSON);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.account_service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.util.RestClientUtilDummy;
+
+/**
+ * Product parsing and validation done for every POST /onboard before any feature runs
+ * (moved from ProductOnboardingController.onboardProduct into OnboardingService.buildContext).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OnboardingValidationBenchmark {
+
+    private BenchmarkFixtures fixtures;
+    private OnboardingRequest validRequest;
+    private OnboardingRequest unsupportedProductRequest;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures(new RestClientUtilDummy(null), true, false);
+        validRequest = BenchmarkFixtures.request("BrandA-BCA", 1, null, null);
+        unsupportedProductRequest = BenchmarkFixtures.request("BrandA-XYZ", 1, null, null);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public OnboardingContext validRequest() {
+        return fixtures.onboardingService.buildContext(validRequest);
+    }
+
+    @Benchmark
+    public String unsupportedProduct() {
+        try {
+            fixtures.onboardingService.buildContext(unsupportedProductRequest);
+            return null;
+        } catch (IllegalArgumentException e) {
+            return e.getMessage();
+        }
+    }
+}
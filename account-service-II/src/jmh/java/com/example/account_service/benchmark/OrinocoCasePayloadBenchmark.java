@@ -0,0 +1,61 @@
+package com.example.account_service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OrinocoCasePayload;
+import com.example.account_service.util.EncodedPayload;
+import com.example.account_service.util.RestClientUtilDummy;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Building the back-office case payload for a failed onboarding, with and without serializing it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrinocoCasePayloadBenchmark {
+
+    private BenchmarkFixtures fixtures;
+    private OnboardingContext context;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures(new RestClientUtilDummy(null), true, false);
+        context = fixtures.onboardingService.buildContext(
+                BenchmarkFixtures.request("BrandA-BCA", 1, "SERVICE_UNAVAILABLE", "schufa"));
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public OrinocoCasePayload createFromContext() {
+        return OrinocoCasePayload.createFromContext(context, fixtures.caseIdGenerator.nextCaseId(),
+                "SCHUFA Check failed with status: 503 SERVICE_UNAVAILABLE");
+    }
+
+    @Benchmark
+    public EncodedPayload createAndSerialize() throws JsonProcessingException {
+        return fixtures.payloadCodec.encode(
+                OrinocoCasePayload.createFromContext(context, fixtures.caseIdGenerator.nextCaseId(),
+                        "SCHUFA Check failed with status: 503 SERVICE_UNAVAILABLE"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.account_service.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.util.EncodedPayload;
+import com.example.account_service.util.RestClientUtilDummy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Serializing a feature payload for the HTTP body and the audit row. "twice" is the former pipeline:
+ * RestTemplate's Jackson converter writes the map to the request body, then a second
+ * writeValueAsString produces the audit JSON. "once" is the shared PayloadCodec.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadSerializationBenchmark {
+
+    private BenchmarkFixtures fixtures;
+    private ObjectMapper perFeatureObjectMapper;
+    private Map<String, Object> payload;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures(new RestClientUtilDummy(null), true, false);
+        perFeatureObjectMapper = new ObjectMapper();
+        payload = new HashMap<>();
+        payload.put("transactionId", "TX-BENCH-1");
+        payload.put("fkn", "FKN-1234567");
+        payload.put("productCode", "BCA");
+        payload.put("customerType", CustomerType.NATURAL_PERSON);
+        payload.put("channel", "digital-banking");
+        payload.put("simulateFailure", "NONE");
+        payload.put("failureTarget", "NONE");
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public void twice(Blackhole blackhole) throws IOException {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        fixtures.objectMapper.writeValue(body, payload);
+        blackhole.consume(body);
+        blackhole.consume(perFeatureObjectMapper.writeValueAsString(payload));
+    }
+
+    @Benchmark
+    public void once(Blackhole blackhole) throws IOException {
+        EncodedPayload encoded = fixtures.payloadCodec.encode(payload);
+        blackhole.consume(encoded.getBytes());
+        blackhole.consume(encoded.asString());
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.account_service.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.dto.OnboardingResult;
+import com.example.account_service.util.RestClientUtilDummy;
+
+/**
+ * A complete onboarding against RestClientUtilDummy: every feature builds, encodes and "sends" its
+ * payload and builds its audit row. With -prof gc, gc.alloc.rate.norm is the number of bytes
+ * allocated per onboarding.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductServiceBenchmark {
+
+    // Without latency, running independent features concurrently only adds hand-off overhead
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    // "success" runs every feature; "case" fails the SCHUFA check and raises an Orinoco case
+    @Param({ "success", "case" })
+    public String outcome;
+
+    private BenchmarkFixtures fixtures;
+    private OnboardingRequest request;
+    private OnboardingContext context;
+
+    @Setup
+    public void setUp() {
+        fixtures = new BenchmarkFixtures(new RestClientUtilDummy(null), parallel, false);
+        request = "case".equals(outcome)
+                ? BenchmarkFixtures.request("BrandA-BCA", 1, "SERVICE_UNAVAILABLE", "schufa")
+                : BenchmarkFixtures.request("BrandA-BCA", 1, null, null);
+        context = fixtures.onboardingService.buildContext(request);
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public String process() {
+        return fixtures.naturalPersonProductService.process(context);
+    }
+
+    // Validation, processing and the final onboard-product audit row, as for POST /onboard
+    @Benchmark
+    public OnboardingResult onboard() {
+        return fixtures.onboardingService.onboard(request, fixtures.onboardingService.buildContext(request));
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.account_service.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.util.EncodedPayload;
+import com.example.account_service.util.RestClientUtilDummy;
+
+/**
+ * Many onboardings at once against slow upstreams, with request and feature threads either pooled
+ * platform threads (Tomcat's default of 200) or virtual threads. One operation is a burst of
+ * concurrent onboardings; the score is the time until all of them are done.
+ * The virtual variant needs Java 21 or newer.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ThreadingModeBenchmark {
+
+    private static final int REQUEST_THREADS = 200;
+
+    @Param({ "platform", "virtual" })
+    public String threads;
+
+    // Concurrent onboardings per operation
+    @Param({ "1000" })
+    public int concurrentOnboardings;
+
+    // Simulated latency of every upstream call
+    @Param({ "20" })
+    public int upstreamLatencyMillis;
+
+    private BenchmarkFixtures fixtures;
+    private AsyncTaskExecutor requestExecutor;
+    private OnboardingContext context;
+
+    @Setup
+    public void setUp() {
+        boolean virtualThreads = "virtual".equals(threads);
+        if (virtualThreads && Runtime.version().feature() < 21) {
+            throw new IllegalStateException("Virtual threads need Java 21 or newer, running on " + Runtime.version());
+        }
+
+        fixtures = new BenchmarkFixtures(new SlowUpstream(upstreamLatencyMillis), true, virtualThreads);
+        // Stands in for the servlet container's request threads
+        requestExecutor = fixtures.taskExecutorFactory.create("request-", REQUEST_THREADS, Integer.MAX_VALUE);
+        context = fixtures.onboardingService.buildContext(BenchmarkFixtures.request("BrandA-BCA", 1, null, null));
+    }
+
+    @TearDown
+    public void tearDown() {
+        fixtures.close();
+    }
+
+    @Benchmark
+    public int burst() throws Exception {
+        List<Future<String>> onboardings = new ArrayList<>(concurrentOnboardings);
+        for (int i = 0; i < concurrentOnboardings; i++) {
+            onboardings.add(requestExecutor.submit(() -> fixtures.naturalPersonProductService.process(context)));
+        }
+        int cases = 0;
+        for (Future<String> onboarding : onboardings) {
+            if (onboarding.get() != null) {
+                cases++;
+            }
+        }
+        return cases;
+    }
+
+    // Upstream simulator that blocks like a real HTTP call
+    private static class SlowUpstream extends RestClientUtilDummy {
+        private final long latencyMillis;
+
+        SlowUpstream(long latencyMillis) {
+            super(null);
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public ResponseEntity<String> makePostCall(String url, EncodedPayload encodedPayload) {
+            try {
+                Thread.sleep(latencyMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.makePostCall(url, encodedPayload);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.example.account_service.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import org.springframework.boot.convert.DurationStyle;
+
+/**
+ * Drives POST /api/products/onboard of a running service at a fixed arrival rate and reports the
+ * latency percentiles and throughput. Requests are sent on schedule whether or not earlier ones have
+ * finished, and latency is measured from the scheduled send time, so a stalled service shows up in
+ * the tail instead of silently lowering the offered load.
+ *
+ * <pre>
+ * --url            http://localhost:8080/api/products/onboard
+ * --rate           Requests per second (default 100)
+ * --duration       Measured duration (default 30s)
+ * --warmup         Duration before measuring (default 5s)
+ * --product        Product code with brand (default BrandA-BCA)
+ * --customer-type  1 = Natural Person, 2 = Legal Entity (default 1)
+ * --max-in-flight  Requests beyond this are counted as dropped (default 2000)
+ * </pre>
+ */
+public final class OnboardingLoadGenerator {
+
+    private final URI uri;
+    private final int rate;
+    private final Duration duration;
+    private final Duration warmup;
+    private final String productCode;
+    private final int customerType;
+    private final int maxInFlight;
+
+    private final HttpClient client;
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> outcomes = new ConcurrentHashMap<>();
+    private final long[] latencies;
+    private final AtomicInteger recorded = new AtomicInteger();
+
+    private OnboardingLoadGenerator(Map<String, String> options) {
+        this.uri = URI.create(options.getOrDefault("url", "http://localhost:8080/api/products/onboard"));
+        this.rate = Integer.parseInt(options.getOrDefault("rate", "100"));
+        this.duration = DurationStyle.detectAndParse(options.getOrDefault("duration", "30s"));
+        this.warmup = DurationStyle.detectAndParse(options.getOrDefault("warmup", "5s"));
+        this.productCode = options.getOrDefault("product", "BrandA-BCA");
+        this.customerType = Integer.parseInt(options.getOrDefault("customer-type", "1"));
+        this.maxInFlight = Integer.parseInt(options.getOrDefault("max-in-flight", "2000"));
+
+        this.client = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(Math.max(4, Runtime.getRuntime().availableProcessors())))
+                .build();
+        this.latencies = new long[(int) Math.min(Integer.MAX_VALUE - 8, rate * duration.toSeconds() + rate)];
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected an option, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        new OnboardingLoadGenerator(options).run();
+        System.exit(0);
+    }
+
+    private void run() throws InterruptedException {
+        System.out.printf("Onboarding load: %d req/s for %s after %s warm-up against %s%n", rate, duration, warmup, uri);
+
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+
+        long sequence = 0;
+        for (long scheduled = start; scheduled < end; scheduled = start + ++sequence * intervalNanos) {
+            long wait = scheduled - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            send(sequence, scheduled, scheduled >= measureFrom);
+        }
+
+        // Let the last requests finish; anything still running is reported as in flight
+        long drainUntil = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (inFlight.get() > 0 && System.nanoTime() < drainUntil) {
+            Thread.sleep(50);
+        }
+        report();
+    }
+
+    private void send(long sequence, long scheduled, boolean measured) {
+        if (inFlight.get() >= maxInFlight) {
+            if (measured) {
+                dropped.increment();
+            }
+            return;
+        }
+
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .timeout(Duration.ofSeconds(60))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body("LOAD-" + runId + "-" + sequence)))
+                .build();
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, error) -> {
+            long latency = System.nanoTime() - scheduled;
+            inFlight.decrementAndGet();
+            if (!measured) {
+                return;
+            }
+            String outcome = error != null ? error.getClass().getSimpleName() : Integer.toString(response.statusCode());
+            outcomes.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+            int index = recorded.getAndIncrement();
+            if (index < latencies.length) {
+                latencies[index] = latency;
+            }
+        });
+    }
+
+    private String body(String transactionId) {
+        return "{\"transactionId\":\"" + transactionId + "\",\"fkn\":\"FKN-" + transactionId.hashCode()
+                + "\",\"productCode\":\"" + productCode + "\",\"pinSet\":true,\"onlineBankingOptIn\":true"
+                + ",\"customerType\":" + customerType + "}";
+    }
+
+    private void report() {
+        int count = Math.min(recorded.get(), latencies.length);
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        System.out.println();
+        System.out.printf(Locale.ROOT, "Requests:    %d completed, %d dropped, %d still in flight%n",
+                count, dropped.sum(), inFlight.get());
+        System.out.printf(Locale.ROOT, "Throughput:  %.1f req/s completed (offered %d req/s)%n",
+                count / (duration.toNanos() / 1e9), rate);
+        System.out.println("Outcomes:    " + new TreeMap<>(outcomes));
+        if (count == 0) {
+            return;
+        }
+        System.out.printf(Locale.ROOT, "Latency ms:  p50 %.1f | p90 %.1f | p99 %.1f | p999 %.1f | max %.1f%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.90), percentile(sorted, 0.99),
+                percentile(sorted, 0.999), sorted[count - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -3,11 +3,13 @@ package com.example.account_service;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 import com.example.account_service.config.ProductConfig;
 
 @SpringBootApplication
 @EnableConfigurationProperties(ProductConfig.class)
+@EnableScheduling
 public class AccountServiceApplication {
 
 	public static void main(String[] args) {
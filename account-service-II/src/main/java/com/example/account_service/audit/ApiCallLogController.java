@@ -1,13 +1,21 @@
 package com.example.account_service.audit;
 
-import java.time.LocalDateTime;
-import java.util.List;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
 
-import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.account_service.config.CallLogQueryProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 import lombok.RequiredArgsConstructor;
 
@@ -15,28 +23,121 @@ import lombok.RequiredArgsConstructor;
 @RequiredArgsConstructor
 public class ApiCallLogController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private static final String VIEW_SUMMARY = "summary";
+    private static final String VIEW_FULL = "full";
+
     private final ApiCallLogService apiCallLogService;
+    private final CallLogQueryProperties properties;
+    private final ObjectMapper objectMapper;
 
     /**
-     * Endpoint to retrieve API call logs based on filters.
+     * Endpoint to retrieve API call logs based on filters, one page at a time, ordered by creation time.
+     * If more rows match, the X-Next-Cursor response header holds the cursor of the next page.
      *
-     * @param featureName The feature name (optional).
-     * @param fkn         The customer identifier (optional).
-     * @param productCode The product code (optional).
-     * @param fromDate    The start of the date range (optional).
-     * @param toDate      The end of the date range (optional).
-     * @return A list of matching logs.
+     * @param filter The filters (transactionId, featureName, fkn, productCode, fromDate, toDate and the
+     *               payload filters requestContains, responseContains, requestMatch, responseMatch), all optional.
+     * @param cursor The X-Next-Cursor of the previous page (optional).
+     * @param limit  The page size (optional); capped at the configured maximum.
+     * @param view   summary (default) for id, transactionId, featureName, httpStatus and createdAt only,
+     *               full to include the request and response payloads.
+     * @return A page of matching logs.
      */
     @GetMapping("/api/call-logs")
-    public ResponseEntity<List<ApiCallLogEntity>> getCallLogs(
-            @RequestParam(required = false) String transactionId,
-            @RequestParam(required = false) String featureName,
-            @RequestParam(required = false) String fkn,
-            @RequestParam(required = false) String productCode,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fromDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime toDate) {
-
-        List<ApiCallLogEntity> logs = apiCallLogService.findLogs(transactionId, featureName, fkn, productCode, fromDate, toDate);
-        return ResponseEntity.ok(logs);
+    public ResponseEntity<?> getCallLogs(
+            ApiCallLogFilter filter,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+
+        CallLogCursor after;
+        try {
+            after = cursor == null || cursor.isEmpty() ? null : CallLogCursor.decode(cursor);
+            filter.validate();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+        if (limit != null && limit < 1) {
+            return ResponseEntity.badRequest().body("limit must be positive");
+        }
+        if (!isValidView(view)) {
+            return ResponseEntity.badRequest().body("view must be " + VIEW_SUMMARY + " or " + VIEW_FULL);
+        }
+        int pageSize = Math.min(limit != null ? limit : properties.getDefaultPageSize(), properties.getMaxPageSize());
+
+        ApiCallLogPage<?> page = VIEW_FULL.equals(view)
+                ? apiCallLogService.findLogPage(filter, after, pageSize)
+                : apiCallLogService.findLogSummaryPage(filter, after, pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor().encode());
+        }
+        return response.body(page.logs());
+    }
+
+    /**
+     * Returns a single log including its request and response payloads.
+     */
+    @GetMapping("/api/call-logs/{id}")
+    public ResponseEntity<ApiCallLogEntity> getCallLog(@PathVariable Long id) {
+        ApiCallLogEntity log = apiCallLogService.findLog(id);
+        if (log == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(log);
+    }
+
+    /**
+     * Streams every matching log as newline-delimited JSON, ordered by creation time. Rows are
+     * written as they are read from the database, so the result size is not limited by memory.
+     * Takes the filters and view of {@link #getCallLogs}.
+     */
+    @GetMapping(value = "/api/call-logs/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamCallLogs(
+            ApiCallLogFilter filter,
+            @RequestParam(defaultValue = VIEW_SUMMARY) String view) {
+
+        String error = null;
+        if (!isValidView(view)) {
+            error = "view must be " + VIEW_SUMMARY + " or " + VIEW_FULL;
+        }
+        try {
+            filter.validate();
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+        if (error != null) {
+            byte[] message = error.getBytes(StandardCharsets.UTF_8);
+            return ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(output -> output.write(message));
+        }
+
+        boolean full = VIEW_FULL.equals(view);
+        ObjectWriter writer = objectMapper.writerFor(full ? ApiCallLogEntity.class : ApiCallLogSummary.class);
+        StreamingResponseBody body = output -> {
+            Consumer<Object> lineWriter = row -> {
+                try {
+                    output.write(writer.writeValueAsBytes(row));
+                    output.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+            try {
+                if (full) {
+                    apiCallLogService.streamLogs(filter, lineWriter::accept);
+                } else {
+                    apiCallLogService.streamLogSummaries(filter, lineWriter::accept);
+                }
+            } catch (UncheckedIOException e) {
+                // The client went away; ending the stream closes the database cursor
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    private static boolean isValidView(String view) {
+        return VIEW_SUMMARY.equals(view) || VIEW_FULL.equals(view);
     }
-}
\ No newline at end of file
+}
@@ -10,6 +10,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -17,6 +18,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
+// Schema, partitions and indexes are managed by Flyway (db/migration) and ApiCallLogPartitionManager
 @Table(name = "api_call_logs")
 @Data
 @Builder
@@ -24,8 +26,10 @@ import lombok.NoArgsConstructor;
 @AllArgsConstructor
 public class ApiCallLogEntity {
 
+    // Pooled sequence ids let Hibernate batch inserts; allocationSize must match the sequence increment
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "api_call_logs_id_gen")
+    @SequenceGenerator(name = "api_call_logs_id_gen", sequenceName = "api_call_logs_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(name = "transaction_id")
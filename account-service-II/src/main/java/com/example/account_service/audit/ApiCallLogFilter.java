@@ -0,0 +1,127 @@
+package com.example.account_service.audit;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.node.TextNode;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Filters of the call log queries, bound from the query parameters of {@link ApiCallLogController}.
+ * Every filter is optional.
+ *
+ * <p>The payload filters are containment queries served by the GIN indexes of the jsonb columns.
+ * A match is a dotted path and a value, e.g. {@code status=error} or {@code customer.type=1}, and
+ * stands for the document {"status": "error"} or {"customer": {"type": 1}}. Values that are not
+ * valid JSON are taken as strings.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ApiCallLogFilter {
+
+    private static final JsonMapper JSON = JsonMapper.builder()
+            .enable(DeserializationFeature.FAIL_ON_TRAILING_TOKENS)
+            .build();
+
+    private String transactionId;
+    private String featureName;   // The feature name (e.g., "schufa-check", "onboard-product")
+    private String fkn;           // Customer identifier
+    private String productCode;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime fromDate;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime toDate;
+
+    private String requestContains;       // JSON document the request payload contains, e.g. {"channel":"digital-banking"}
+    private String responseContains;      // JSON document the response body contains
+    private List<String> requestMatch;    // path=value pairs the request payload contains
+    private List<String> responseMatch;   // path=value pairs the response body contains, e.g. status=error
+
+    /**
+     * Checks the payload filters.
+     *
+     * @throws IllegalArgumentException If a document is not valid JSON or a match is not path=value.
+     */
+    public void validate() {
+        containedDocuments(requestContains, requestMatch);
+        containedDocuments(responseContains, responseMatch);
+    }
+
+    public Specification<ApiCallLogEntity> toSpecification() {
+        Specification<ApiCallLogEntity> specification = Specification
+                .where(ApiCallLogSpecifications.hasTransactionId(transactionId))
+                .and(ApiCallLogSpecifications.hasFeatureName(featureName))
+                .and(ApiCallLogSpecifications.hasFkn(fkn))
+                .and(ApiCallLogSpecifications.hasProductCode(productCode))
+                .and(ApiCallLogSpecifications.hasDateRange(fromDate, toDate));
+        for (String document : containedDocuments(requestContains, requestMatch)) {
+            specification = specification.and(ApiCallLogSpecifications.requestPayloadContains(document));
+        }
+        for (String document : containedDocuments(responseContains, responseMatch)) {
+            specification = specification.and(ApiCallLogSpecifications.responseBodyContains(document));
+        }
+        return specification;
+    }
+
+    private static List<String> containedDocuments(String contains, List<String> matches) {
+        List<String> documents = new ArrayList<>();
+        if (contains != null && !contains.isEmpty()) {
+            try {
+                documents.add(JSON.readTree(contains).toString());
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("Invalid JSON document: " + contains);
+            }
+        }
+        if (matches != null) {
+            for (String match : matches) {
+                documents.add(matchDocument(match));
+            }
+        }
+        return documents;
+    }
+
+    private static String matchDocument(String match) {
+        int separator = match.indexOf('=');
+        if (separator < 1) {
+            throw new IllegalArgumentException("Expected path=value, got: " + match);
+        }
+        String rawValue = match.substring(separator + 1);
+        JsonNode document;
+        try {
+            document = JSON.readTree(rawValue);
+        } catch (JsonProcessingException e) {
+            document = null;
+        }
+        if (document == null || document.isMissingNode()) {
+            document = TextNode.valueOf(rawValue);
+        }
+
+        String[] path = match.substring(0, separator).split("\\.", -1);
+        for (int i = path.length - 1; i >= 0; i--) {
+            if (path[i].isEmpty()) {
+                throw new IllegalArgumentException("Empty path segment in: " + match);
+            }
+            ObjectNode parent = JSON.createObjectNode();
+            parent.set(path[i], document);
+            document = parent;
+        }
+        return document.toString();
+    }
+}
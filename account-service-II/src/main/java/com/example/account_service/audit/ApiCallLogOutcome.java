@@ -0,0 +1,10 @@
+package com.example.account_service.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * The status and response of a call log, read by selecting only these columns; enough to
+ * reconstruct the result of an onboarding without reading its request payload.
+ */
+public record ApiCallLogOutcome(String httpStatus, String responseBody, LocalDateTime createdAt) {
+}
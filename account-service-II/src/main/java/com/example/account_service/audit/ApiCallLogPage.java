@@ -0,0 +1,12 @@
+package com.example.account_service.audit;
+
+import java.util.List;
+
+/**
+ * One page of call logs.
+ *
+ * @param logs       The rows, ordered by (createdAt, id).
+ * @param nextCursor The position after the last row, or null if this is the last page.
+ */
+public record ApiCallLogPage<T>(List<T> logs, CallLogCursor nextCursor) {
+}
@@ -0,0 +1,136 @@
+package com.example.account_service.audit;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.example.account_service.config.AuditProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Maintains the monthly partitions of api_call_logs: creates the partitions of the coming months, so
+ * rows never land in the default partition, and detaches (or drops) partitions older than the
+ * retention, which removes a month of rows without a bulk DELETE. Runs on startup and daily; with
+ * several instances, only the one holding the advisory lock does the work.
+ */
+@Slf4j
+@Component
+public class ApiCallLogPartitionManager {
+
+    private static final String TABLE = "api_call_logs";
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_y(\\d{4})m(\\d{2})");
+
+    // Arbitrary key of the advisory lock serializing partition maintenance across instances
+    private static final long LOCK_KEY = 0x61706963616c6cL;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final AuditProperties.Partitions properties;
+
+    @Autowired
+    public ApiCallLogPartitionManager(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+                                      AuditProperties auditProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.properties = auditProperties.getPartitions();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onStartup() {
+        maintain();
+    }
+
+    @Scheduled(cron = "${account-service.audit.partitions.cron:0 15 2 * * *}")
+    public void maintain() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= properties.getMonthsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            withLock("create partition for " + month, () -> createPartition(month));
+        }
+
+        YearMonth oldestKept = current.minusMonths(properties.getRetentionMonths() - 1L);
+        for (String partition : findPartitions()) {
+            YearMonth month = monthOf(partition);
+            if (month != null && month.isBefore(oldestKept)) {
+                withLock("retire partition " + partition, () -> retirePartition(partition));
+            }
+        }
+
+        Long misplaced = jdbcTemplate.queryForObject("SELECT count(*) FROM " + TABLE + "_default", Long.class);
+        if (misplaced != null && misplaced > 0) {
+            log.warn("{} audit rows are in the default partition; their months have no partition of their own", misplaced);
+        }
+    }
+
+    private void createPartition(YearMonth month) {
+        LocalDate from = month.atDay(1);
+        LocalDate to = month.plusMonths(1).atDay(1);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')");
+    }
+
+    private void retirePartition(String partition) {
+        jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+        if (properties.isDropDetached()) {
+            jdbcTemplate.execute("DROP TABLE " + partition);
+            log.info("Dropped audit partition {} after the retention of {} months", partition, properties.getRetentionMonths());
+        } else {
+            log.info("Detached audit partition {} after the retention of {} months; it can be archived and dropped",
+                    partition, properties.getRetentionMonths());
+        }
+    }
+
+    private List<String> findPartitions() {
+        return jdbcTemplate.queryForList("""
+                SELECT child.relname
+                FROM pg_inherits
+                JOIN pg_class parent ON parent.oid = pg_inherits.inhparent
+                JOIN pg_class child ON child.oid = pg_inherits.inhrelid
+                WHERE parent.relname = ?
+                ORDER BY child.relname
+                """, String.class, TABLE);
+    }
+
+    // Each change runs in its own transaction, so one failing partition does not block the others
+    private void withLock(String description, Runnable change) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+                if (Boolean.TRUE.equals(locked)) {
+                    change.run();
+                } else {
+                    log.debug("Skipping {}: partition maintenance is running on another instance", description);
+                }
+            });
+        } catch (DataAccessException e) {
+            log.error("Unable to {}: {}", description, e.getMessage(), e);
+        }
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("%s_y%04dm%02d", TABLE, month.getYear(), month.getMonthValue());
+    }
+
+    private static YearMonth monthOf(String partition) {
+        Matcher matcher = PARTITION_NAME.matcher(partition);
+        return matcher.matches()
+                ? YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)))
+                : null;
+    }
+}
@@ -1,9 +1,36 @@
 package com.example.account_service.audit;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface ApiCallLogRepository extends JpaRepository<ApiCallLogEntity, Long>, JpaSpecificationExecutor<ApiCallLogEntity> {
-}
\ No newline at end of file
+public interface ApiCallLogRepository extends JpaRepository<ApiCallLogEntity, Long>, JpaSpecificationExecutor<ApiCallLogEntity>,
+        ApiCallLogRepositoryCustom {
+
+    /**
+     * Finds the outcomes of a feature's calls for a transaction since the given time, latest first.
+     * Served by idx_api_call_logs_transaction_id in the partitions of the time range only.
+     */
+    @Query("SELECT new com.example.account_service.audit.ApiCallLogOutcome(l.httpStatus, l.responseBody, l.createdAt) "
+            + "FROM ApiCallLogEntity l WHERE l.transactionId = :transactionId AND l.featureName = :featureName "
+            + "AND l.createdAt >= :since ORDER BY l.createdAt DESC, l.id DESC")
+    List<ApiCallLogOutcome> findLatestOutcomes(@Param("transactionId") String transactionId,
+                                               @Param("featureName") String featureName,
+                                               @Param("since") LocalDateTime since, Limit limit);
+
+    /**
+     * Like {@link #findLatestOutcomes}, but reads only the request payloads.
+     */
+    @Query("SELECT l.requestPayload FROM ApiCallLogEntity l WHERE l.transactionId = :transactionId "
+            + "AND l.featureName = :featureName AND l.createdAt >= :since ORDER BY l.createdAt DESC, l.id DESC")
+    List<String> findLatestRequestPayloads(@Param("transactionId") String transactionId,
+                                           @Param("featureName") String featureName,
+                                           @Param("since") LocalDateTime since, Limit limit);
+}
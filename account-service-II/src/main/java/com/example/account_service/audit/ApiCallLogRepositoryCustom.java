@@ -0,0 +1,32 @@
+package com.example.account_service.audit;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.springframework.data.jpa.domain.Specification;
+
+public interface ApiCallLogRepositoryCustom {
+
+    /**
+     * Reads every matching row, ordered by (createdAt, id), through a forward-only database cursor.
+     * Rows are fetched in chunks of the configured fetch size and detached once consumed, so memory
+     * use does not depend on the number of rows.
+     *
+     * @param spec     The filters.
+     * @param consumer Called for every row, inside the read-only transaction.
+     */
+    void streamAll(Specification<ApiCallLogEntity> spec, Consumer<ApiCallLogEntity> consumer);
+
+    /**
+     * Finds the summaries of the first matching rows, ordered by (createdAt, id), without reading the payloads.
+     *
+     * @param spec  The filters.
+     * @param limit The maximum number of rows.
+     */
+    List<ApiCallLogSummary> findSummaries(Specification<ApiCallLogEntity> spec, int limit);
+
+    /**
+     * Like {@link #streamAll}, but reads only the summary columns.
+     */
+    void streamSummaries(Specification<ApiCallLogEntity> spec, Consumer<ApiCallLogSummary> consumer);
+}
@@ -0,0 +1,89 @@
+package com.example.account_service.audit;
+
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.account_service.config.CallLogQueryProperties;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+
+public class ApiCallLogRepositoryCustomImpl implements ApiCallLogRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final CallLogQueryProperties properties;
+
+    public ApiCallLogRepositoryCustomImpl(CallLogQueryProperties properties) {
+        this.properties = properties;
+    }
+
+    // The PostgreSQL driver only honors the fetch size inside a transaction; otherwise it reads the whole result
+    @Override
+    @Transactional(readOnly = true)
+    public void streamAll(Specification<ApiCallLogEntity> spec, Consumer<ApiCallLogEntity> consumer) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ApiCallLogEntity> query = criteriaBuilder.createQuery(ApiCallLogEntity.class);
+        Root<ApiCallLogEntity> root = query.from(ApiCallLogEntity.class);
+        filterAndSort(query, root, spec, criteriaBuilder);
+
+        TypedQuery<ApiCallLogEntity> typedQuery = entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, properties.getStreamFetchSize())
+                .setHint(HibernateHints.HINT_READ_ONLY, true);
+        try (Stream<ApiCallLogEntity> rows = typedQuery.getResultStream()) {
+            rows.forEach(row -> {
+                consumer.accept(row);
+                // Keep the persistence context from growing with every row read
+                entityManager.detach(row);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ApiCallLogSummary> findSummaries(Specification<ApiCallLogEntity> spec, int limit) {
+        return createSummaryQuery(spec).setMaxResults(limit).getResultList();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamSummaries(Specification<ApiCallLogEntity> spec, Consumer<ApiCallLogSummary> consumer) {
+        TypedQuery<ApiCallLogSummary> typedQuery = createSummaryQuery(spec)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, properties.getStreamFetchSize());
+        try (Stream<ApiCallLogSummary> rows = typedQuery.getResultStream()) {
+            rows.forEach(consumer);
+        }
+    }
+
+    // Selects only the summary columns, so the jsonb payloads are never read from disk
+    private TypedQuery<ApiCallLogSummary> createSummaryQuery(Specification<ApiCallLogEntity> spec) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ApiCallLogSummary> query = criteriaBuilder.createQuery(ApiCallLogSummary.class);
+        Root<ApiCallLogEntity> root = query.from(ApiCallLogEntity.class);
+        query.select(criteriaBuilder.construct(ApiCallLogSummary.class,
+                root.get("id"), root.get("transactionId"), root.get("featureName"), root.get("httpStatus"),
+                root.get("createdAt")));
+        filterAndSort(query, root, spec, criteriaBuilder);
+        return entityManager.createQuery(query);
+    }
+
+    private static void filterAndSort(CriteriaQuery<?> query, Root<ApiCallLogEntity> root,
+                                      Specification<ApiCallLogEntity> spec, CriteriaBuilder criteriaBuilder) {
+        Predicate predicate = spec.toPredicate(root, query, criteriaBuilder);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(criteriaBuilder.asc(root.get("createdAt")), criteriaBuilder.asc(root.get("id")));
+    }
+}
@@ -2,10 +2,17 @@ package com.example.account_service.audit;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 
+import com.example.account_service.config.AuditProperties;
+import com.example.account_service.util.OnboardingMetrics;
+
 import lombok.RequiredArgsConstructor;
 
 @Service
@@ -13,9 +20,13 @@ import lombok.RequiredArgsConstructor;
 public class ApiCallLogService {
 
     private final ApiCallLogRepository apiCallLogRepository;
+    private final ApiCallLogWriter apiCallLogWriter;
+    private final AuditProperties auditProperties;
+    private final OnboardingMetrics onboardingMetrics;
 
     /**
-     * Logs the API call response.
+     * Logs the API call response. In ASYNC audit mode the row is handed to the background
+     * writer and persisted in a later batch; otherwise it is saved on the calling thread.
      *
      * @param featureName  The feature name (e.g., "schufa-check", "onboard").
      * @param fkn          The customer identifier.
@@ -26,7 +37,49 @@ public class ApiCallLogService {
     public void logApiResponse(String transactionId, String featureName, String fkn, String productCode,
                                 String httpStatus, String requestPayload, String responseBody) {
 
-        ApiCallLogEntity log = ApiCallLogEntity.builder()
+        ApiCallLogEntity log = createLog(transactionId, featureName, fkn, productCode, httpStatus, requestPayload, responseBody);
+
+        if (auditProperties.getMode() == AuditProperties.Mode.ASYNC) {
+            apiCallLogWriter.enqueue(log);
+        } else {
+            saveTimed(() -> apiCallLogRepository.save(log));
+        }
+    }
+
+    /**
+     * Logs several API call responses at once. In SYNC audit mode the rows are saved with a single
+     * saveAll so they are inserted in JDBC batches; in ASYNC mode they are queued like single rows.
+     *
+     * @param logs The audit rows, created with {@link #createLog}.
+     */
+    public void logApiResponses(List<ApiCallLogEntity> logs) {
+        if (logs.isEmpty()) {
+            return;
+        }
+
+        if (auditProperties.getMode() == AuditProperties.Mode.ASYNC) {
+            for (ApiCallLogEntity log : logs) {
+                apiCallLogWriter.enqueue(log);
+            }
+        } else {
+            saveTimed(() -> apiCallLogRepository.saveAll(logs));
+        }
+    }
+
+    /**
+     * Saves the row on the calling thread whatever the audit mode, so it commits or rolls back
+     * together with the caller's transaction.
+     */
+    public void saveLog(ApiCallLogEntity log) {
+        saveTimed(() -> apiCallLogRepository.save(log));
+    }
+
+    /**
+     * Creates an audit row without persisting it, e.g. to collect rows for {@link #logApiResponses}.
+     */
+    public ApiCallLogEntity createLog(String transactionId, String featureName, String fkn, String productCode,
+                                      String httpStatus, String requestPayload, String responseBody) {
+        return ApiCallLogEntity.builder()
                 .transactionId(transactionId)
                 .featureName(featureName)
                 .fkn(fkn)
@@ -36,8 +89,6 @@ public class ApiCallLogService {
                 .responseBody(responseBody)     // Save response body as JSON
                 .createdAt(LocalDateTime.now())
                 .build();
-
-        apiCallLogRepository.save(log);
     }
 
     /**
@@ -54,13 +105,115 @@ public class ApiCallLogService {
     public List<ApiCallLogEntity> findLogs(String transactionId, String featureName, String fkn, String productCode,
                                            LocalDateTime fromDate, LocalDateTime toDate) {
 
-        Specification<ApiCallLogEntity> spec = Specification
-                .where(ApiCallLogSpecifications.hasTransactionId(transactionId))
-                .and(ApiCallLogSpecifications.hasFeatureName(featureName))
-                .and(ApiCallLogSpecifications.hasFkn(fkn))
-                .and(ApiCallLogSpecifications.hasProductCode(productCode))
-                .and(ApiCallLogSpecifications.hasDateRange(fromDate, toDate));
+        ApiCallLogFilter filter = ApiCallLogFilter.builder()
+                .transactionId(transactionId)
+                .featureName(featureName)
+                .fkn(fkn)
+                .productCode(productCode)
+                .fromDate(fromDate)
+                .toDate(toDate)
+                .build();
+        return apiCallLogRepository.findAll(filter.toSpecification());
+    }
+
+    /**
+     * Finds the status and response of the latest call of a feature for a transaction.
+     *
+     * @param transactionId The transaction.
+     * @param featureName   The feature name.
+     * @param since         Older calls are not looked at.
+     * @return The outcome of the latest call, or null if there is none since the given time.
+     */
+    public ApiCallLogOutcome findLatestOutcome(String transactionId, String featureName, LocalDateTime since) {
+        return apiCallLogRepository.findLatestOutcomes(transactionId, featureName, since, Limit.of(1))
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Finds the request payload of the latest call of a feature for a transaction.
+     *
+     * @param transactionId The transaction.
+     * @param featureName   The feature name.
+     * @param since         Older calls are not looked at.
+     * @return The request payload of the latest call, or null if there is none since the given time.
+     */
+    public String findLatestRequestPayload(String transactionId, String featureName, LocalDateTime since) {
+        return apiCallLogRepository.findLatestRequestPayloads(transactionId, featureName, since, Limit.of(1))
+                .stream()
+                .findFirst()
+                .orElse(null);
+    }
+
+    /**
+     * Finds a single log with its payloads.
+     *
+     * @return The log, or null if there is none with this id.
+     */
+    public ApiCallLogEntity findLog(Long id) {
+        return apiCallLogRepository.findById(id).orElse(null);
+    }
+
+    /**
+     * Finds one page of the logs matching the filter, ordered by (createdAt, id), with their payloads.
+     * Pages are addressed by keyset rather than offset, so deep pages cost the same as the first one.
+     *
+     * @param after The cursor of the previous page, or null for the first page.
+     * @param limit The maximum number of rows.
+     * @return The page with the cursor of the next page, if any.
+     */
+    public ApiCallLogPage<ApiCallLogEntity> findLogPage(ApiCallLogFilter filter, CallLogCursor after, int limit) {
+        Specification<ApiCallLogEntity> spec = filter.toSpecification().and(ApiCallLogSpecifications.isAfter(after));
+
+        // One row more than requested tells whether there is a next page
+        List<ApiCallLogEntity> logs = apiCallLogRepository.findBy(spec, query -> query
+                .sortBy(Sort.by("createdAt", "id"))
+                .limit(limit + 1)
+                .all());
+        return toPage(logs, limit, CallLogCursor::after);
+    }
+
+    /**
+     * Like {@link #findLogPage}, but without reading the payloads.
+     */
+    public ApiCallLogPage<ApiCallLogSummary> findLogSummaryPage(ApiCallLogFilter filter, CallLogCursor after, int limit) {
+        Specification<ApiCallLogEntity> spec = filter.toSpecification().and(ApiCallLogSpecifications.isAfter(after));
+        List<ApiCallLogSummary> logs = apiCallLogRepository.findSummaries(spec, limit + 1);
+        return toPage(logs, limit, CallLogCursor::after);
+    }
+
+    /**
+     * Passes every log matching the filter to the consumer, ordered by (createdAt, id), without
+     * loading the result into memory.
+     */
+    public void streamLogs(ApiCallLogFilter filter, Consumer<ApiCallLogEntity> consumer) {
+        apiCallLogRepository.streamAll(filter.toSpecification(), consumer);
+    }
+
+    /**
+     * Like {@link #streamLogs}, but without reading the payloads.
+     */
+    public void streamLogSummaries(ApiCallLogFilter filter, Consumer<ApiCallLogSummary> consumer) {
+        apiCallLogRepository.streamSummaries(filter.toSpecification(), consumer);
+    }
+
+    private static <T> ApiCallLogPage<T> toPage(List<T> logs, int limit, Function<T, CallLogCursor> cursor) {
+        if (logs.size() <= limit) {
+            return new ApiCallLogPage<>(logs, null);
+        }
+        List<T> page = logs.subList(0, limit);
+        return new ApiCallLogPage<>(page, cursor.apply(page.get(limit - 1)));
+    }
 
-        return apiCallLogRepository.findAll(spec);
+    private void saveTimed(Runnable save) {
+        long start = System.nanoTime();
+        try {
+            save.run();
+            onboardingMetrics.recordAuditWrite("sync", OnboardingMetrics.SUCCESS, System.nanoTime() - start);
+        } catch (RuntimeException e) {
+            onboardingMetrics.recordAuditWrite("sync", OnboardingMetrics.FAILURE, System.nanoTime() - start);
+            throw e;
+        }
     }
-}
\ No newline at end of file
+}
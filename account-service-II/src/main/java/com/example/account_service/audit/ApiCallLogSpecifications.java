@@ -2,6 +2,7 @@ package com.example.account_service.audit;
 
 import java.time.LocalDateTime;
 
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
 import org.springframework.data.jpa.domain.Specification;
 
 import jakarta.persistence.criteria.Predicate;
@@ -47,4 +48,35 @@ public class ApiCallLogSpecifications {
             return criteriaBuilder.and(greaterThanOrEqualTo, lessThanOrEqualTo);
         };
     }
-}
\ No newline at end of file
+
+    // Rows after the cursor in (createdAt, id) order; served by the (created_at, id) index
+    public static Specification<ApiCallLogEntity> isAfter(CallLogCursor cursor) {
+        return (root, query, criteriaBuilder) ->
+            cursor == null
+                ? criteriaBuilder.conjunction()
+                : criteriaBuilder.or(
+                    criteriaBuilder.greaterThan(root.get("createdAt"), cursor.createdAt()),
+                    criteriaBuilder.and(
+                        criteriaBuilder.equal(root.get("createdAt"), cursor.createdAt()),
+                        criteriaBuilder.greaterThan(root.get("id"), cursor.id())));
+    }
+
+    // Rows whose request payload contains the JSON document; served by the GIN index of the column
+    public static Specification<ApiCallLogEntity> requestPayloadContains(String document) {
+        return payloadContains("requestPayload", document);
+    }
+
+    // Rows whose response body contains the JSON document; served by the GIN index of the column
+    public static Specification<ApiCallLogEntity> responseBodyContains(String document) {
+        return payloadContains("responseBody", document);
+    }
+
+    // The document is bound as a parameter; criteriaBuilder.literal would inline it into the SQL
+    private static Specification<ApiCallLogEntity> payloadContains(String attribute, String document) {
+        return (root, query, criteriaBuilder) ->
+            document == null
+                ? criteriaBuilder.conjunction()
+                : criteriaBuilder.isTrue(criteriaBuilder.function(JsonbFunctionContributor.JSONB_CONTAINS,
+                    Boolean.class, root.get(attribute), ((HibernateCriteriaBuilder) criteriaBuilder).value(document)));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.account_service.audit;
+
+import java.time.LocalDateTime;
+
+/**
+ * A call log without its jsonb payloads, read by selecting only these columns. Reading the
+ * payloads means decompressing them from TOAST, which dominates the cost of broad queries.
+ */
+public record ApiCallLogSummary(Long id, String transactionId, String featureName, String httpStatus,
+                                LocalDateTime createdAt) {
+}
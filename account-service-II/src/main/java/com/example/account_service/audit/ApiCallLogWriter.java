@@ -0,0 +1,436 @@
+package com.example.account_service.audit;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.stereotype.Component;
+
+import com.example.account_service.config.AuditProperties;
+import com.example.account_service.util.OnboardingMetrics;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Write-behind pipeline for audit rows. Rows are queued in a bounded in-memory queue and
+ * persisted in batches by a single background thread, flushing when a batch is full or
+ * when the flush interval elapses. Only started when the audit mode is ASYNC.
+ * Rows spilled to the spill file are fed back into the queue by the same thread whenever the
+ * queue has room again, so they reach the database without waiting for a restart.
+ * Only rows that failed for lack of a working database are spilled: when the database rejects a
+ * batch, its rows are written one at a time and the rejected ones go to the dead-letter file.
+ */
+@Slf4j
+@Component
+public class ApiCallLogWriter {
+
+    private final ApiCallLogRepository apiCallLogRepository;
+    private final AuditProperties auditProperties;
+    private final ObjectMapper objectMapper;
+    private final OnboardingMetrics onboardingMetrics;
+    private final BlockingQueue<ApiCallLogEntity> queue;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path deadLetterFile;
+    private final Object spillLock = new Object();
+    private final Object deadLetterLock = new Object();
+
+    // Enqueuers hold the read lock while they check running and queue the row; stop() takes the
+    // write lock to clear running, so no row is queued after the writer's final drain
+    private final ReadWriteLock lifecycleLock = new ReentrantReadWriteLock();
+
+    private final AtomicLong droppedRows = new AtomicLong();
+    private final AtomicLong spilledRows = new AtomicLong();
+    private final AtomicLong deadLetteredRows = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    // Set when rows are spilled, cleared when the spill file is taken over for replay (under spillLock)
+    private volatile boolean spillPending;
+    private volatile long nextReplayNanos = System.nanoTime();
+
+    // The spill file being replayed; only used by the writer thread
+    private BufferedReader replayReader;
+    private int replayedRows;
+
+    @Autowired
+    public ApiCallLogWriter(ApiCallLogRepository apiCallLogRepository, AuditProperties auditProperties,
+                            ObjectMapper objectMapper, OnboardingMetrics onboardingMetrics) {
+        this.apiCallLogRepository = apiCallLogRepository;
+        this.auditProperties = auditProperties;
+        this.objectMapper = objectMapper;
+        this.onboardingMetrics = onboardingMetrics;
+        this.queue = new ArrayBlockingQueue<>(auditProperties.getQueueCapacity());
+        this.spillFile = Paths.get(auditProperties.getSpillFile());
+        this.replayFile = Paths.get(auditProperties.getSpillFile() + ".replay");
+        this.deadLetterFile = Paths.get(auditProperties.getDeadLetterFile());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (auditProperties.getMode() != AuditProperties.Mode.ASYNC) {
+            return;
+        }
+
+        // Rows spilled before a restart are replayed by the writer thread like any other spill
+        spillPending = Files.exists(spillFile) || Files.exists(replayFile);
+
+        running = true;
+        writerThread = new Thread(this::run, "audit-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Asynchronous audit writer started (queueCapacity: {}, batchSize: {}, flushInterval: {}, backpressure: {})",
+                auditProperties.getQueueCapacity(), auditProperties.getBatchSize(),
+                auditProperties.getFlushInterval(), auditProperties.getBackpressure());
+    }
+
+    /**
+     * Queues the row for the background writer, applying the configured backpressure policy when the queue is full.
+     *
+     * @param logEntity The audit row to persist.
+     */
+    public void enqueue(ApiCallLogEntity logEntity) {
+        lifecycleLock.readLock().lock();
+        try {
+            if (!running) {
+                // Not started or already shutting down: keep the row by writing it directly
+                apiCallLogRepository.save(logEntity);
+                return;
+            }
+            if (!queue.offer(logEntity)) {
+                applyBackpressure(logEntity);
+            }
+        } finally {
+            lifecycleLock.readLock().unlock();
+        }
+    }
+
+    private void applyBackpressure(ApiCallLogEntity logEntity) {
+        switch (auditProperties.getBackpressure()) {
+            case SPILL:
+                spill(List.of(logEntity));
+                break;
+            case DROP_SUCCESS:
+                if (isSuccess(logEntity)) {
+                    long dropped = droppedRows.incrementAndGet();
+                    log.warn("Audit queue full, dropped successful row for transactionId: {}, feature: {} (total dropped: {})",
+                            logEntity.getTransactionId(), logEntity.getFeatureName(), dropped);
+                    break;
+                }
+                offerOrWriteDirectly(logEntity);
+                break;
+            case BLOCK:
+            default:
+                offerOrWriteDirectly(logEntity);
+                break;
+        }
+    }
+
+    /**
+     * Returns the number of rows waiting to be written.
+     */
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    public long getDroppedRows() {
+        return droppedRows.get();
+    }
+
+    public long getSpilledRows() {
+        return spilledRows.get();
+    }
+
+    public long getDeadLetteredRows() {
+        return deadLetteredRows.get();
+    }
+
+    @PreDestroy
+    public void stop() {
+        lifecycleLock.writeLock().lock();
+        try {
+            if (!running) {
+                return;
+            }
+            running = false;
+        } finally {
+            lifecycleLock.writeLock().unlock();
+        }
+
+        try {
+            writerThread.join(auditProperties.getShutdownTimeout().toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        // Anything the writer did not get to is flushed here, so no queued row is lost on shutdown
+        List<ApiCallLogEntity> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            log.info("Flushing {} queued audit rows on shutdown", remaining.size());
+            writeBatch(remaining);
+        }
+        log.info("Asynchronous audit writer stopped");
+    }
+
+    private void run() {
+        int batchSize = auditProperties.getBatchSize();
+        long flushIntervalNanos = auditProperties.getFlushInterval().toNanos();
+        List<ApiCallLogEntity> batch = new ArrayList<>(batchSize);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                if (running) {
+                    replaySpilledRows();
+                }
+                ApiCallLogEntity first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+
+                // Fill the batch until it is full or the flush interval since the first row has elapsed
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    if (queue.drainTo(batch, batchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0 || !running) {
+                        break;
+                    }
+                    ApiCallLogEntity next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+        suspendReplay();
+    }
+
+    private void writeBatch(List<ApiCallLogEntity> batch) {
+        long start = System.nanoTime();
+        try {
+            apiCallLogRepository.saveAll(batch);
+            onboardingMetrics.recordAuditWrite("async", OnboardingMetrics.SUCCESS, System.nanoTime() - start);
+        } catch (Exception e) {
+            onboardingMetrics.recordAuditWrite("async", OnboardingMetrics.FAILURE, System.nanoTime() - start);
+            if (isRejected(e)) {
+                // One bad row fails the whole batch; find it so the others are not held back with it
+                log.warn("Error writing {} audit rows, writing them one at a time: {}", batch.size(), e.getMessage());
+                writeRows(batch);
+            } else {
+                log.error("Error writing {} audit rows, spilling them to {}: {}", batch.size(), spillFile, e.getMessage(), e);
+                spillForReplay(batch);
+            }
+        }
+    }
+
+    private void writeRows(List<ApiCallLogEntity> rows) {
+        for (int i = 0; i < rows.size(); i++) {
+            ApiCallLogEntity row = rows.get(i);
+            // The id allocated for the failed batch insert is not used
+            row.setId(null);
+            try {
+                apiCallLogRepository.save(row);
+            } catch (Exception e) {
+                if (!isRejected(e)) {
+                    log.error("Error writing audit rows, spilling {} of them to {}: {}", rows.size() - i, spillFile,
+                            e.getMessage(), e);
+                    spillForReplay(rows.subList(i, rows.size()));
+                    return;
+                }
+                log.error("Audit row for transactionId: {}, feature: {} was rejected, moving it to {}: {}",
+                        row.getTransactionId(), row.getFeatureName(), deadLetterFile, e.getMessage());
+                deadLetter(objectMapper.valueToTree(row).toString());
+            }
+        }
+    }
+
+    // The database is likely unavailable; give it time before replaying the spill file
+    private void spillForReplay(List<ApiCallLogEntity> rows) {
+        nextReplayNanos = System.nanoTime() + auditProperties.getSpillReplayBackoff().toNanos();
+        spill(rows);
+    }
+
+    private void offerOrWriteDirectly(ApiCallLogEntity logEntity) {
+        try {
+            if (queue.offer(logEntity, auditProperties.getBlockTimeout().toNanos(), TimeUnit.NANOSECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.warn("Audit queue full for {}, writing row for transactionId: {} synchronously",
+                auditProperties.getBlockTimeout(), logEntity.getTransactionId());
+        apiCallLogRepository.save(logEntity);
+    }
+
+    private void spill(List<ApiCallLogEntity> rows) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (ApiCallLogEntity row : rows) {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.newLine();
+                }
+                spilledRows.addAndGet(rows.size());
+                spillPending = true;
+            } catch (IOException e) {
+                log.error("Error spilling {} audit rows to {}: {}", rows.size(), spillFile, e.getMessage(), e);
+            }
+        }
+    }
+
+    private void deadLetter(String line) {
+        synchronized (deadLetterLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(deadLetterFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line);
+                writer.newLine();
+                deadLetteredRows.incrementAndGet();
+            } catch (IOException e) {
+                log.error("Error writing audit row to {}: {}", deadLetterFile, e.getMessage(), e);
+            }
+        }
+    }
+
+    // Feeds spilled rows back into the queue while it is at most half full, leaving room for new rows.
+    // Rows that fail to be written again are spilled again by writeBatch, unless the database rejects them.
+    private void replaySpilledRows() {
+        try {
+            if (replayReader == null && !openReplayFile()) {
+                return;
+            }
+            int capacity = auditProperties.getQueueCapacity();
+            while (queue.remainingCapacity() > capacity / 2) {
+                String line = replayReader.readLine();
+                if (line == null) {
+                    replayReader.close();
+                    replayReader = null;
+                    Files.delete(replayFile);
+                    log.info("Replayed {} spilled audit rows from {}", replayedRows, spillFile);
+                    return;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+                ApiCallLogEntity row;
+                try {
+                    row = objectMapper.readValue(line, ApiCallLogEntity.class);
+                } catch (JsonProcessingException e) {
+                    log.error("Unreadable spilled audit row in {}, moving it to {}: {}", replayFile, deadLetterFile,
+                            e.getOriginalMessage());
+                    deadLetter(line);
+                    continue;
+                }
+                row.setId(null);
+                if (!queue.offer(row)) {
+                    spill(List.of(row));
+                }
+                replayedRows++;
+            }
+        } catch (IOException e) {
+            // Keep the file; rows already queued from it may be written again on the next replay
+            log.error("Error replaying spilled audit rows from {} after {} rows: {}", replayFile, replayedRows,
+                    e.getMessage(), e);
+            closeReplayReader();
+            nextReplayNanos = System.nanoTime() + auditProperties.getSpillReplayBackoff().toNanos();
+        }
+    }
+
+    private boolean openReplayFile() throws IOException {
+        if (!spillPending || System.nanoTime() - nextReplayNanos < 0) {
+            return false;
+        }
+        synchronized (spillLock) {
+            // A replay file left by an earlier run is finished first; new spills go to a fresh spill file
+            if (!Files.exists(replayFile)) {
+                if (!Files.exists(spillFile)) {
+                    spillPending = false;
+                    return false;
+                }
+                Files.move(spillFile, replayFile);
+            }
+            spillPending = Files.exists(spillFile);
+        }
+        replayReader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8);
+        replayedRows = 0;
+        return true;
+    }
+
+    // On shutdown, the rows not yet replayed go back to the spill file for the next start
+    private void suspendReplay() {
+        if (replayReader == null) {
+            return;
+        }
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                String line;
+                while ((line = replayReader.readLine()) != null) {
+                    writer.write(line);
+                    writer.newLine();
+                }
+                closeReplayReader();
+                Files.delete(replayFile);
+            } catch (IOException e) {
+                log.error("Error returning unreplayed audit rows from {} to {}: {}", replayFile, spillFile,
+                        e.getMessage(), e);
+                closeReplayReader();
+            }
+        }
+    }
+
+    private void closeReplayReader() {
+        try {
+            if (replayReader != null) {
+                replayReader.close();
+            }
+        } catch (IOException e) {
+            log.debug("Error closing {}: {}", replayFile, e.getMessage());
+        }
+        replayReader = null;
+    }
+
+    // The database refused the rows themselves, e.g. a constraint violation or invalid jsonb; writing
+    // them again cannot succeed. Connection failures and timeouts are worth replaying.
+    private static boolean isRejected(Exception e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    private static boolean isSuccess(ApiCallLogEntity logEntity) {
+        String httpStatus = logEntity.getHttpStatus();
+        return httpStatus != null && httpStatus.startsWith("2");
+    }
+}
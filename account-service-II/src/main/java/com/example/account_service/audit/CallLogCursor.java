@@ -0,0 +1,40 @@
+package com.example.account_service.audit;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the call logs ordered by (createdAt, id): the next page starts after this row.
+ * Handed to clients as an opaque string.
+ */
+public record CallLogCursor(LocalDateTime createdAt, long id) {
+
+    public static CallLogCursor after(ApiCallLogEntity log) {
+        return new CallLogCursor(log.getCreatedAt(), log.getId());
+    }
+
+    public static CallLogCursor after(ApiCallLogSummary log) {
+        return new CallLogCursor(log.createdAt(), log.id());
+    }
+
+    /**
+     * @throws IllegalArgumentException If the cursor was not created by {@link #encode()}.
+     */
+    public static CallLogCursor decode(String cursor) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new CallLogCursor(LocalDateTime.parse(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.account_service.audit;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * Registers jsonb_contains(column, document) for criteria queries, rendered as the Postgres
+ * containment operator {@code column @> cast(document as jsonb)}. Only the operator form can use
+ * the GIN indexes of the payload columns; calling the Postgres function of the same name cannot.
+ * Loaded by Hibernate through META-INF/services.
+ */
+public class JsonbFunctionContributor implements FunctionContributor {
+
+    static final String JSONB_CONTAINS = "jsonb_contains";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        functionContributions.getFunctionRegistry()
+                .patternDescriptorBuilder(JSONB_CONTAINS, "(?1 @> cast(?2 as jsonb))")
+                .setExactArgumentCount(2)
+                .setInvariantType(functionContributions.getTypeConfiguration()
+                        .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN))
+                .register();
+    }
+}
@@ -0,0 +1,31 @@
+package com.example.account_service.checkpoint;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+// Schema is managed by Flyway (db/migration)
+@Table(name = "onboarding_checkpoints")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingCheckpointEntity {
+
+    @EmbeddedId
+    private OnboardingCheckpointId id;
+
+    @Column(name = "product_code")
+    private String productCode;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+}
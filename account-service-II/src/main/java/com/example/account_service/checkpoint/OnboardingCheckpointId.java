@@ -0,0 +1,22 @@
+package com.example.account_service.checkpoint;
+
+import java.io.Serializable;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Embeddable
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingCheckpointId implements Serializable {
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "feature_name")
+    private String featureName;
+}
@@ -0,0 +1,33 @@
+package com.example.account_service.checkpoint;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OnboardingCheckpointRepository extends JpaRepository<OnboardingCheckpointEntity, OnboardingCheckpointId> {
+
+    List<OnboardingCheckpointEntity> findByIdTransactionId(String transactionId);
+
+    // One statement instead of save's select-then-insert; a feature run again overwrites its checkpoint
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO onboarding_checkpoints (transaction_id, feature_name, product_code, completed_at) "
+            + "VALUES (:transactionId, :featureName, :productCode, :completedAt) "
+            + "ON CONFLICT (transaction_id, feature_name) "
+            + "DO UPDATE SET completed_at = EXCLUDED.completed_at",
+            nativeQuery = true)
+    int upsert(@Param("transactionId") String transactionId, @Param("featureName") String featureName,
+               @Param("productCode") String productCode, @Param("completedAt") LocalDateTime completedAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OnboardingCheckpointEntity c WHERE c.completedAt < :cutoff")
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,83 @@
+package com.example.account_service.checkpoint;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.example.account_service.config.CheckpointProperties;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.enums.FeatureType;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Records which features of an onboarding have completed, so that a resumed onboarding continues
+ * with the feature that failed instead of calling every upstream again. Checkpoints are only written
+ * when an onboarding fails and only read when it is resumed. They are an optimization: if one
+ * cannot be written, the feature simply runs again on resume.
+ */
+@Slf4j
+@Service
+public class OnboardingCheckpointService {
+
+    private final OnboardingCheckpointRepository repository;
+    private final CheckpointProperties properties;
+
+    @Autowired
+    public OnboardingCheckpointService(OnboardingCheckpointRepository repository, CheckpointProperties properties) {
+        this.repository = repository;
+        this.properties = properties;
+    }
+
+    /**
+     * Finds the completed features of an onboarding.
+     *
+     * @param transactionId The transaction ID of the onboarding.
+     * @return The names of the completed features; empty if none or disabled.
+     */
+    public Set<String> findCompleted(String transactionId) {
+        if (!properties.isEnabled() || transactionId == null || transactionId.isBlank()) {
+            return Set.of();
+        }
+        return repository.findByIdTransactionId(transactionId).stream()
+                .map(checkpoint -> checkpoint.getId().getFeatureName())
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    /**
+     * Records the completed features of a failed onboarding.
+     *
+     * @param context      The onboarding context.
+     * @param featureTypes The features the failed attempt completed.
+     */
+    public void record(OnboardingContext context, Collection<FeatureType> featureTypes) {
+        if (!properties.isEnabled() || featureTypes.isEmpty()
+                || context.getTransactionId() == null || context.getTransactionId().isBlank()) {
+            return;
+        }
+        LocalDateTime completedAt = LocalDateTime.now();
+        for (FeatureType featureType : featureTypes) {
+            try {
+                repository.upsert(context.getTransactionId(), featureType.getFeatureName(), context.getProductCode(),
+                        completedAt);
+            } catch (Exception e) {
+                log.warn("Error recording checkpoint of {} for transactionId {}: {}", featureType.getFeatureName(),
+                        context.getTransactionId(), e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(cron = "${account-service.checkpoints.purge-cron:0 45 2 * * *}")
+    public void purgeExpired() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        int deleted = repository.deleteCompletedBefore(LocalDateTime.now().minus(properties.getRetention()));
+        log.info("Purged {} onboarding checkpoints older than {}", deleted, properties.getRetention());
+    }
+}
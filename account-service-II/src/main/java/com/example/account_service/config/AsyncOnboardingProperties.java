@@ -0,0 +1,29 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.async-onboarding")
+public class AsyncOnboardingProperties {
+
+    // Onboardings processed at the same time
+    private int poolSize = 16;
+
+    // Accepted onboardings waiting to be processed; further requests are rejected with 503
+    private int maxPending = 500;
+
+    // How long the status of a finished onboarding stays available in memory
+    private Duration statusRetention = Duration.ofHours(1);
+
+    // Upper bound for statuses kept in memory
+    private int maxStatuses = 100_000;
+
+    // How long an onboarding waits for a duplicate running on another endpoint before it is reported as failed
+    private Duration duplicateWait = Duration.ofMinutes(5);
+}
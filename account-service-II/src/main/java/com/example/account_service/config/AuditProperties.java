@@ -0,0 +1,75 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.audit")
+public class AuditProperties {
+
+    // SYNC writes each row on the calling thread, ASYNC hands it to the background writer
+    private Mode mode = Mode.SYNC;
+
+    // Maximum number of rows waiting for the background writer
+    private int queueCapacity = 10_000;
+
+    // Rows written per batch; a batch is flushed when full or when flushInterval elapses
+    private int batchSize = 100;
+    private Duration flushInterval = Duration.ofMillis(200);
+
+    // What to do with a row when the queue is full
+    private Backpressure backpressure = Backpressure.BLOCK;
+
+    // How long BLOCK waits for queue space before writing the row on the calling thread
+    private Duration blockTimeout = Duration.ofSeconds(1);
+
+    // Rows that could not be queued or persisted are appended here and replayed in the background
+    private String spillFile = "audit-spill.ndjson";
+
+    // Rows the database rejects (e.g. a constraint violation) are appended here instead of being replayed
+    private String deadLetterFile = "audit-dead-letter.ndjson";
+
+    // Pause before spilled rows are replayed again after a failed write
+    private Duration spillReplayBackoff = Duration.ofSeconds(30);
+
+    // Upper bound for draining the queue on shutdown
+    private Duration shutdownTimeout = Duration.ofSeconds(10);
+
+    // Monthly partitions of api_call_logs, maintained by ApiCallLogPartitionManager
+    private Partitions partitions = new Partitions();
+
+    @Data
+    public static class Partitions {
+
+        // Whether the service creates and retires partitions itself
+        private boolean enabled = true;
+
+        // Monthly partitions created ahead of the current month
+        private int monthsAhead = 3;
+
+        // Months of audit rows kept, including the current one; older partitions are detached
+        private int retentionMonths = 13;
+
+        // Drop detached partitions instead of keeping them as standalone tables for archiving
+        private boolean dropDetached = false;
+
+        // When maintenance runs, in addition to startup
+        private String cron = "0 15 2 * * *";
+    }
+
+    public enum Mode {
+        SYNC,
+        ASYNC
+    }
+
+    public enum Backpressure {
+        BLOCK,          // Wait for queue space, then fall back to a synchronous write
+        DROP_SUCCESS,   // Drop successful (2xx) rows, block for failures
+        SPILL           // Append the row to the spill file
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.account_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.batch-onboarding")
+public class BatchOnboardingProperties {
+
+    // Records of one batch processed at the same time
+    private int concurrency = 8;
+
+    // Threads shared by all running batches
+    private int poolSize = 32;
+
+    // Tasks waiting for a thread; when full the batch reader runs the record itself
+    private int queueCapacity = 100;
+
+    // Final "onboard-product" audit rows collected before they are written together
+    private int auditBatchSize = 50;
+}
@@ -0,0 +1,21 @@
+package com.example.account_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.call-logs")
+public class CallLogQueryProperties {
+
+    // Rows per page when the client does not ask for a size
+    private int defaultPageSize = 100;
+
+    // Upper bound for the page size; larger requests are capped
+    private int maxPageSize = 1000;
+
+    // Rows fetched per database round trip when streaming
+    private int streamFetchSize = 500;
+}
@@ -0,0 +1,16 @@
+package com.example.account_service.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.case-ids")
+public class CaseIdProperties {
+
+    // Node ID embedded in case IDs (0-1023), distinct per running instance, e.g. the StatefulSet
+    // ordinal; required, startup fails without it
+    private Integer nodeId;
+}
@@ -0,0 +1,43 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.case-outbox")
+public class CaseOutboxProperties {
+
+    // Whether this instance delivers outbox rows; cases are recorded either way
+    private boolean dispatcherEnabled = true;
+
+    // Pause between polls of the outbox when it has nothing due
+    private Duration pollInterval = Duration.ofMillis(500);
+
+    // Rows claimed per poll; at most one row per transaction
+    private int batchSize = 50;
+
+    // Deliveries of a batch running at the same time
+    private int concurrency = 8;
+
+    // How long a claimed row is hidden from other dispatchers; an instance that dies mid-delivery
+    // leaves the row to be claimed again after this
+    private Duration lease = Duration.ofSeconds(30);
+
+    // Attempts before a row is marked FAILED
+    private int maxAttempts = 10;
+
+    // Backoff after the first failed attempt; doubled after each further one up to maxBackoff
+    private Duration initialBackoff = Duration.ofSeconds(1);
+    private Duration maxBackoff = Duration.ofMinutes(5);
+
+    // How long delivered rows are kept
+    private Duration retention = Duration.ofDays(7);
+
+    // Schedule of the retention purge
+    private String purgeCron = "0 50 2 * * *";
+}
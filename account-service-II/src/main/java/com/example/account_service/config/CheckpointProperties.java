@@ -0,0 +1,23 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.checkpoints")
+public class CheckpointProperties {
+
+    // Record completed features, so a resumed onboarding skips them
+    private boolean enabled = true;
+
+    // How long checkpoints are kept; a resume after that runs every feature again
+    private Duration retention = Duration.ofDays(30);
+
+    // Schedule of the retention purge
+    private String purgeCron = "0 45 2 * * *";
+}
@@ -0,0 +1,27 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.execution")
+public class FeatureExecutionProperties {
+
+    // Run independent features of a plan concurrently; false runs every plan step by step
+    private boolean parallel = true;
+
+    // Features running concurrently across all requests (pool threads, or the limit for virtual threads)
+    private int poolSize = 32;
+
+    // Features waiting for a platform thread; when full, the request thread runs the feature itself
+    private int queueCapacity = 100;
+
+    // How long a failed plan waits for the features it cancelled; covers the upstream read timeout,
+    // as blocking HTTP calls do not react to the interrupt
+    private Duration cancelWait = Duration.ofSeconds(15);
+}
@@ -0,0 +1,63 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.http-client")
+public class HttpClientProperties {
+
+    // Pool for token calls to the local sidecar container
+    private Pool sidecar = new Pool(20, 20, Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofMillis(500));
+
+    // Pool for calls to the upstream APIs (Schufa, account opening, PIN, online banking, Orinoco)
+    private Pool upstream = new Pool(200, 50, Duration.ofSeconds(2), Duration.ofSeconds(10), Duration.ofSeconds(1));
+
+    @Data
+    public static class Pool {
+
+        // Connections across all hosts
+        private int maxTotal;
+
+        // Connections to a single host
+        private int maxPerRoute;
+
+        // Time to establish the TCP connection
+        private Duration connectTimeout;
+
+        // Time to wait for the response, and for data on the socket once it started
+        private Duration readTimeout;
+
+        // Time to wait for a free connection when the pool is exhausted
+        private Duration connectionRequestTimeout;
+
+        // Upper bound for keeping an idle connection open; shorter if the server says so
+        private Duration keepAlive = Duration.ofSeconds(30);
+
+        // Idle connections are closed by a background thread after this time
+        private Duration idleEviction = Duration.ofSeconds(30);
+
+        // Connections are not reused after this age, so DNS changes are picked up
+        private Duration timeToLive = Duration.ofMinutes(5);
+
+        // Pooled connections idle for longer are checked before being reused
+        private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+        public Pool() {
+        }
+
+        public Pool(int maxTotal, int maxPerRoute, Duration connectTimeout, Duration readTimeout,
+                    Duration connectionRequestTimeout) {
+            this.maxTotal = maxTotal;
+            this.maxPerRoute = maxPerRoute;
+            this.connectTimeout = connectTimeout;
+            this.readTimeout = readTimeout;
+            this.connectionRequestTimeout = connectionRequestTimeout;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.idempotency")
+public class IdempotencyProperties {
+
+    // Treat the transactionId of the onboard, async and batch endpoints as idempotency key
+    private boolean enabled = true;
+
+    // How long a finished result is served from memory
+    private Duration resultTtl = Duration.ofHours(1);
+
+    // Upper bound for results kept in memory; the least recently used are evicted first
+    private long maxResults = 100_000;
+
+    // Look up results missing from memory in the audit table (e.g. after a restart or on another node)
+    private boolean auditFallback = true;
+
+    // How far back the audit table is searched; older transactionIds are onboarded again
+    private Duration auditWindow = Duration.ofDays(30);
+
+    // How long a duplicate waits for the running onboarding before it is answered with 409
+    private Duration inFlightWait = Duration.ofSeconds(30);
+}
@@ -0,0 +1,150 @@
+package com.example.account_service.config;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Immutable, indexed view of {@link ProductConfig} built once at startup.
+ * Brands and product codes are matched case-insensitively with plain hash lookups,
+ * so resolving a product on the request path does not scan the configured lists.
+ */
+@Slf4j
+@Component
+public class ProductCatalog {
+
+    private final Map<String, Map<String, Entry>> entriesByBrand;
+    private final List<Entry> entries;
+
+    @Autowired
+    public ProductCatalog(ProductConfig productConfig) {
+        Map<String, Map<String, Entry>> byBrand = new HashMap<>();
+        List<Entry> all = new ArrayList<>();
+
+        if (productConfig.getBrands() != null) {
+            for (Map.Entry<String, ProductConfig.BrandConfig> brand : productConfig.getBrands().entrySet()) {
+                Map<String, Entry> byProductCode = new HashMap<>();
+                List<ProductConfig.Product> products = brand.getValue().getProducts();
+                if (products != null) {
+                    for (ProductConfig.Product product : products) {
+                        Entry entry = new Entry(brand.getKey(), product);
+                        if (byProductCode.putIfAbsent(normalize(product.getProductCode()), entry) != null) {
+                            throw new IllegalStateException("Duplicate product code " + product.getProductCode()
+                                    + " configured for brand: " + brand.getKey());
+                        }
+                        all.add(entry);
+                    }
+                }
+                if (byBrand.putIfAbsent(normalize(brand.getKey()), Collections.unmodifiableMap(byProductCode)) != null) {
+                    throw new IllegalStateException("Duplicate brand configured: " + brand.getKey());
+                }
+            }
+        }
+
+        this.entriesByBrand = Collections.unmodifiableMap(byBrand);
+        this.entries = Collections.unmodifiableList(all);
+        log.info("Product catalog initialised with {} brands and {} products", entriesByBrand.size(), entries.size());
+    }
+
+    /**
+     * Checks whether the brand is configured.
+     *
+     * @param brand The brand name, in any case (e.g., "BrandA").
+     * @return true if the brand has a product configuration.
+     */
+    public boolean hasBrand(String brand) {
+        return brand != null && entriesByBrand.containsKey(normalize(brand));
+    }
+
+    /**
+     * Resolves the catalog entry for the brand and product code.
+     *
+     * @param brand       The brand name, in any case (e.g., "BrandA").
+     * @param productCode The product code, in any case (e.g., "BCA").
+     * @return The matching entry, or null if the brand or product is not configured.
+     */
+    public Entry find(String brand, String productCode) {
+        if (brand == null || productCode == null) {
+            return null;
+        }
+        Map<String, Entry> products = entriesByBrand.get(normalize(brand));
+        return products == null ? null : products.get(normalize(productCode));
+    }
+
+    /**
+     * Returns every configured product across all brands.
+     */
+    public List<Entry> getEntries() {
+        return entries;
+    }
+
+    private static String normalize(String key) {
+        return key.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * A single configured product of a brand, with everything derived from its configuration precomputed.
+     */
+    public static final class Entry {
+        private final String brand;
+        private final String productCode;
+        private final ProductConfig.Product product;
+        private final Map<String, Boolean> onlineBankingAttributes;
+
+        private Entry(String brand, ProductConfig.Product product) {
+            this.brand = brand;
+            this.productCode = product.getProductCode();
+            this.product = product;
+            this.onlineBankingAttributes = buildOnlineBankingAttributes(product);
+        }
+
+        public String getBrand() {
+            return brand;
+        }
+
+        public String getProductCode() {
+            return productCode;
+        }
+
+        public ProductConfig.Product getProduct() {
+            return product;
+        }
+
+        /**
+         * Returns the online banking subfeatures, or null if online banking activation is not enabled.
+         */
+        public Map<String, Boolean> getOnlineBankingAttributes() {
+            return onlineBankingAttributes;
+        }
+
+        private static Map<String, Boolean> buildOnlineBankingAttributes(ProductConfig.Product product) {
+            ProductConfig.ProductFeatures features = product.getFeatures();
+            if (features == null || !features.isOnlineBankingEnabled()) {
+                return null;
+            }
+
+            Map<String, Boolean> attributes = new LinkedHashMap<>();
+            ProductConfig.SubFeatures subFeatures = features.getOnlineBankingActivation().getSubFeatures();
+            if (subFeatures != null) {
+                attributes.put("telephoneBanking", subFeatures.isTelephoneBanking());
+                attributes.put("smsNotifications", subFeatures.isSmsNotifications());
+                attributes.put("emailAlerts", subFeatures.isEmailAlerts());
+            }
+            return Collections.unmodifiableMap(attributes);
+        }
+
+        @Override
+        public String toString() {
+            return brand + "-" + productCode;
+        }
+    }
+}
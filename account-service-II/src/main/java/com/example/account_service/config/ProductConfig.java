@@ -55,11 +55,14 @@ public class ProductConfig {
     @Data
     public static class FeatureConfig {
         private int priority;
+        // Features (by config key, e.g. "schufa") that must finish first; unset means all lower priorities
+        private List<String> dependsOn;
     }
 
     @Data
     public static class OnlineBankingFeature {
         private int priority;
+        private List<String> dependsOn;
         private SubFeatures subFeatures;
     }
 
@@ -1,14 +1,86 @@
 package com.example.account_service.config;
 
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+
+/**
+ * RestTemplates backed by pooled Apache HttpClient connections. The sidecar and the upstream APIs
+ * get separate pools, so a slow upstream cannot starve token fetches. Pool usage is published as
+ * httpcomponents.httpclient.pool.* metrics tagged with httpclient=sidecar|upstream.
+ */
 @Configuration
 public class RestTemplateConfig {
 
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public HttpComponentsClientHttpRequestFactory upstreamRequestFactory(HttpClientProperties properties,
+                                                                         MeterRegistry meterRegistry) {
+        return createRequestFactory("upstream", properties.getUpstream(), meterRegistry);
+    }
+
+    @Bean
+    public HttpComponentsClientHttpRequestFactory sidecarRequestFactory(HttpClientProperties properties,
+                                                                        MeterRegistry meterRegistry) {
+        return createRequestFactory("sidecar", properties.getSidecar(), meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public RestTemplate restTemplate(@Qualifier("upstreamRequestFactory") HttpComponentsClientHttpRequestFactory requestFactory) {
+        return new RestTemplate(requestFactory);
+    }
+
+    @Bean
+    public RestTemplate sidecarRestTemplate(@Qualifier("sidecarRequestFactory") HttpComponentsClientHttpRequestFactory requestFactory) {
+        return new RestTemplate(requestFactory);
+    }
+
+    // The request factory closes the client, and with it the pool, when the context shuts down
+    private static HttpComponentsClientHttpRequestFactory createRequestFactory(String name, HttpClientProperties.Pool pool,
+                                                                               MeterRegistry meterRegistry) {
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(pool.getMaxTotal())
+                .setMaxConnPerRoute(pool.getMaxPerRoute())
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(pool.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(pool.getReadTimeout()))
+                        .setTimeToLive(TimeValue.of(pool.getTimeToLive()))
+                        .setValidateAfterInactivity(TimeValue.of(pool.getValidateAfterInactivity()))
+                        .build())
+                .build();
+
+        TimeValue maxKeepAlive = TimeValue.of(pool.getKeepAlive());
+        CloseableHttpClient httpClient = HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(pool.getConnectionRequestTimeout()))
+                        .setResponseTimeout(Timeout.of(pool.getReadTimeout()))
+                        .build())
+                .setKeepAliveStrategy((response, context) ->
+                        DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context).min(maxKeepAlive))
+                // Upstream calls change state upstream, so a failed call is reported rather than sent again
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(pool.getIdleEviction()))
+                .build();
+
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, name).bindTo(meterRegistry);
+
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
     }
 }
@@ -0,0 +1,27 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.sidecar")
+public class SidecarTokenProperties {
+
+    private String authnTokenUrl = "http://localhost:8082/sidecar/authn-token";
+
+    private String authzTokenUrl = "http://localhost:8082/sidecar/authz-token";
+
+    // A token is no longer used this long before its exp claim, to absorb clock skew and request latency
+    private Duration expirySkew = Duration.ofSeconds(30);
+
+    // A token this close to expiry is still returned, but a refresh is started in the background
+    private Duration refreshAhead = Duration.ofMinutes(2);
+
+    // Lifetime assumed for tokens without a readable exp claim
+    private Duration defaultTtl = Duration.ofMinutes(5);
+}
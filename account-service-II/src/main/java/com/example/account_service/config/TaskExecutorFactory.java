@@ -0,0 +1,87 @@
+package com.example.account_service.config;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Creates the service's internal executors according to the threading mode.
+ * With spring.threads.virtual.enabled=true on Java 21+ every task gets its own virtual thread,
+ * bounded by a concurrency limit; otherwise a fixed pool of platform threads with a bounded queue is used.
+ * Executors are shut down when the application context closes.
+ */
+@Slf4j
+@Component
+public class TaskExecutorFactory {
+
+    private final boolean virtualThreads;
+    private final List<AutoCloseable> executors = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    public TaskExecutorFactory(Environment environment) {
+        this.virtualThreads = Threading.VIRTUAL.isActive(environment);
+        log.info("Internal executors use {} threads", virtualThreads ? "virtual" : "platform");
+    }
+
+    public boolean isVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Creates a bounded executor.
+     *
+     * @param threadNamePrefix The prefix for thread names (e.g., "feature-").
+     * @param maxConcurrency   The maximum number of tasks running at the same time.
+     * @param queueCapacity    Tasks waiting for a platform thread; when full the submitting thread runs the task.
+     *                         Virtual threads do not queue, submitters wait for a free slot instead.
+     * @return The executor.
+     */
+    public AsyncTaskExecutor create(String threadNamePrefix, int maxConcurrency, int queueCapacity) {
+        if (virtualThreads) {
+            SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadNamePrefix);
+            executor.setVirtualThreads(true);
+            executor.setConcurrencyLimit(maxConcurrency);
+            executors.add(executor);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(maxConcurrency);
+        executor.setMaxPoolSize(maxConcurrency);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix(threadNamePrefix);
+        // Saturated pool: the submitting thread runs the task itself instead of failing. Unlike
+        // CallerRunsPolicy, a pool that is shut down rejects the task rather than dropping it silently
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            if (pool.isShutdown()) {
+                throw new RejectedExecutionException("Executor " + threadNamePrefix + " has been shut down");
+            }
+            task.run();
+        });
+        executor.initialize();
+        executors.add(executor::shutdown);
+        return executor;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (AutoCloseable executor : executors) {
+            try {
+                executor.close();
+            } catch (Exception e) {
+                log.warn("Error shutting down executor: {}", e.getMessage());
+            }
+        }
+    }
+}
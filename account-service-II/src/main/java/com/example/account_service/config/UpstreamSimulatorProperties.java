@@ -0,0 +1,47 @@
+package com.example.account_service.config;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import lombok.Data;
+
+@Data
+@Configuration
+@ConfigurationProperties(prefix = "account-service.upstream-simulator")
+public class UpstreamSimulatorProperties {
+
+    // Off by default: the dummy upstreams answer immediately
+    private boolean enabled = false;
+
+    // Lifetime of the tokens issued by the sidecar simulator
+    private Duration tokenTtl = Duration.ofMinutes(10);
+
+    // Behavior of endpoints without own settings
+    private Endpoint defaults = new Endpoint();
+
+    // Behavior per endpoint, keyed by a part of its URL (e.g. schufa-check, case-management, sidecar)
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    @Data
+    public static class Endpoint {
+
+        // Median latency
+        private Duration median = Duration.ZERO;
+
+        // 99th percentile latency; latencies are log-normal through median and p99, so p999 and above keep growing
+        private Duration p99 = Duration.ZERO;
+
+        // Share of calls that never answer and run into the client's read timeout (0.0 - 1.0)
+        private double timeoutRate = 0.0;
+
+        // Share of calls answered with the error status (0.0 - 1.0)
+        private double errorRate = 0.0;
+
+        // Status of simulated errors
+        private int errorStatus = 503;
+    }
+}
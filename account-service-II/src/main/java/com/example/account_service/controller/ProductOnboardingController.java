@@ -1,26 +1,36 @@
 package com.example.account_service.controller;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
-import com.example.account_service.audit.ApiCallLogService;
 import com.example.account_service.config.ProductConfig;
+import com.example.account_service.dto.OnboardingContext;
 import com.example.account_service.dto.OnboardingRequest;
-import com.example.account_service.enums.CustomerType;
-import com.example.account_service.services.ProductService;
-import com.example.account_service.services.factory.ProductServiceFactory;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-
+import com.example.account_service.dto.OnboardingResult;
+import com.example.account_service.dto.OnboardingStatus;
+import com.example.account_service.services.AsyncOnboardingService;
+import com.example.account_service.services.BatchOnboardingService;
+import com.example.account_service.services.IdempotentOnboardingService;
+import com.example.account_service.services.OnboardingService;
+import com.example.account_service.services.OnboardingStatusRegistry;
+
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
 
 @Slf4j
@@ -28,121 +38,136 @@ import lombok.extern.slf4j.Slf4j;
 @RequestMapping("/api/products")
 public class ProductOnboardingController {
 
-    private final ProductServiceFactory productServiceFactory;
+    private final OnboardingService onboardingService;
+    private final IdempotentOnboardingService idempotentOnboardingService;
+    private final AsyncOnboardingService asyncOnboardingService;
+    private final OnboardingStatusRegistry statusRegistry;
+    private final BatchOnboardingService batchOnboardingService;
     private final ProductConfig productConfig;
-    private final ApiCallLogService apiCallLogService;
-
-    private final ObjectMapper objectMapper = new ObjectMapper();
 
     @Autowired
-    public ProductOnboardingController(ProductServiceFactory productServiceFactory,
-                                       ProductConfig productConfig,
-                                       ApiCallLogService apiCallLogService) {
-        this.productServiceFactory = productServiceFactory;
+    public ProductOnboardingController(OnboardingService onboardingService,
+                                       IdempotentOnboardingService idempotentOnboardingService,
+                                       AsyncOnboardingService asyncOnboardingService,
+                                       OnboardingStatusRegistry statusRegistry,
+                                       BatchOnboardingService batchOnboardingService,
+                                       ProductConfig productConfig) {
+        this.onboardingService = onboardingService;
+        this.idempotentOnboardingService = idempotentOnboardingService;
+        this.asyncOnboardingService = asyncOnboardingService;
+        this.statusRegistry = statusRegistry;
+        this.batchOnboardingService = batchOnboardingService;
         this.productConfig = productConfig;
-        this.apiCallLogService = apiCallLogService;
     }
 
+    /**
+     * Onboards the product. A repeated transactionId is not onboarded again: it is answered with the
+     * result of the first request, or waits for it while that request is still running.
+     */
     @PostMapping("/onboard")
     public ResponseEntity<String> onboardProduct(@RequestBody OnboardingRequest request) {
         log.info("Received onboarding request: {}", request);
 
-        String transactionId = request.getTransactionId();
-        String fkn = request.getFkn();
-        String productRequest = request.getProductCode(); // Format: BrandA-BCA
-
-        // Parse the brand and product from the request
-        String[] productSplit = productRequest.split("-");
-        if (productSplit.length != 2) {
-            return ResponseEntity.badRequest().body("Invalid product format. Expected format: BrandName-ProductCode");
+        OnboardingContext context;
+        try {
+            context = onboardingService.buildContext(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         }
 
-        String brandName = productSplit[0];
-        String productCode = productSplit[1];
+        OnboardingResult result = idempotentOnboardingService.onboard(request, context);
+        return ResponseEntity.status(result.getHttpStatus()).body(result.getMessage());
+    }
 
-        // Validate the brand and product
-        if (!productConfig.getBrands().containsKey(brandName)) {
-            return ResponseEntity.badRequest().body("Unsupported brand: " + brandName);
+    /**
+     * Resumes a failed onboarding: features completed by the earlier attempts are not called again.
+     * Resubmitting the request to /onboard only returns the recorded failure. Without a body the
+     * recorded request is resumed; a body replaces it and must carry the same transactionId.
+     * Returns 404 if the transactionId was never onboarded.
+     */
+    @PostMapping("/onboard/{transactionId}/resume")
+    public ResponseEntity<String> resumeOnboarding(@PathVariable String transactionId,
+                                                   @RequestBody(required = false) OnboardingRequest request) {
+        log.info("Received resume request for transactionId: {}", transactionId);
+
+        OnboardingRequest recorded = idempotentOnboardingService.findRecordedRequest(transactionId);
+        if (recorded == null) {
+            return ResponseEntity.notFound().build();
         }
-        ProductConfig.BrandConfig brandConfig = productConfig.getBrands().get(brandName);
-        if (brandConfig.getProducts().stream().noneMatch(p -> p.getProductCode().equalsIgnoreCase(productCode))) {
-            return ResponseEntity.badRequest().body("Unsupported product for brand: " + productCode);
+        if (request == null) {
+            request = recorded;
+        } else if (!transactionId.equals(request.getTransactionId())) {
+            return ResponseEntity.badRequest().body("transactionId of the request does not match " + transactionId);
         }
 
-        // Determine customer type
-        CustomerType customerType = CustomerType.fromCode(request.getCustomerType());
+        OnboardingContext context;
+        try {
+            context = onboardingService.buildContext(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+
+        OnboardingResult result = idempotentOnboardingService.resume(request, context);
+        return ResponseEntity.status(result.getHttpStatus()).body(result.getMessage());
+    }
 
-        // Build request context
-        Map<String, Object> requestContext = new HashMap<>();
-        requestContext.put("transactionId", transactionId);
-        requestContext.put("fkn", fkn);
-        requestContext.put("productCode", productCode);
-        requestContext.put("simulateFailure", request.getSimulateFailure());
-        requestContext.put("failureTarget", request.getFailureTarget());
-        requestContext.put("pinSet", request.isPinSet());
-        requestContext.put("onlineBankingOptIn", request.isOnlineBankingOptIn());
-        requestContext.put("brand", brandName);
-        requestContext.put("customerType", customerType);
+    /**
+     * Validates and queues the onboarding, returning 202 with the URL of its status resource.
+     * Returns 503 if too many onboardings are pending.
+     */
+    @PostMapping("/onboard/async")
+    public ResponseEntity<?> onboardProductAsync(@RequestBody OnboardingRequest request) {
+        log.info("Received asynchronous onboarding request: {}", request);
 
-        log.info("Request Context: {}", requestContext);
+        if (request.getTransactionId() == null || request.getTransactionId().isBlank()) {
+            return ResponseEntity.badRequest().body("transactionId is required for asynchronous onboarding");
+        }
 
-        String requestPayloadJson;
-        String finalResponseMessage;
+        OnboardingContext context;
+        try {
+            context = onboardingService.buildContext(request);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
 
+        OnboardingStatus status;
         try {
-            requestPayloadJson = objectMapper.writeValueAsString(request);
-
-            // Delegate to the appropriate service
-            ProductService productService = productServiceFactory.getService(customerType);
-            String caseId = productService.process(requestContext);
-
-            // Handle response
-            if (caseId != null) {
-                finalResponseMessage = "An issue occurred. Case ID: " + caseId +
-                                       ". The bank will contact you for further processing.";
-            } else {
-                finalResponseMessage = "Onboarding for product " + productRequest +
-                                       " Transaction Id: " + transactionId +
-                                       " linked to FKN " + fkn +
-                                       " completed successfully.";
-            }
-
-            // Log the final response
-            apiCallLogService.logApiResponse(
-                transactionId,
-                "onboard-product",
-                fkn,
-                productCode,
-                "200 OK",
-                requestPayloadJson,
-                objectMapper.writeValueAsString(finalResponseMessage)
-            );
-
-            return ResponseEntity.ok(finalResponseMessage);
-
-        } catch (Exception e) {
-            finalResponseMessage = "Onboarding failed for product " + productRequest +
-                                   " Transaction Id: " + transactionId +
-                                   " with error: " + e.getMessage();
-
-            log.error("Error during onboarding: {}", e.getMessage(), e);
-
-            try {
-                apiCallLogService.logApiResponse(
-                    transactionId,
-                    "onboard-product",
-                    fkn,
-                    productCode,
-                    "500 INTERNAL_SERVER_ERROR",
-                    objectMapper.writeValueAsString(request),
-                    objectMapper.writeValueAsString(finalResponseMessage)
-                );
-            } catch (JsonProcessingException logException) {
-                log.error("Error logging to database: {}", logException.getMessage(), logException);
-            }
-
-            return ResponseEntity.status(500).body(finalResponseMessage);
+            status = asyncOnboardingService.submit(request, context);
+        } catch (RejectedExecutionException e) {
+            log.warn("Rejected asynchronous onboarding for transactionId {}: {}", request.getTransactionId(), e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
+
+        URI statusUri = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/products/onboard/{transactionId}/status")
+                .buildAndExpand(status.getTransactionId())
+                .toUri();
+        return ResponseEntity.accepted().location(statusUri).body(status);
+    }
+
+    /**
+     * Returns the progress and final result (or case ID) of an asynchronous onboarding.
+     */
+    @GetMapping("/onboard/{transactionId}/status")
+    public ResponseEntity<OnboardingStatus> getOnboardingStatus(@PathVariable String transactionId) {
+        OnboardingStatus status = statusRegistry.find(transactionId);
+        if (status == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(status);
+    }
+
+    /**
+     * Onboards a stream of newline-delimited onboarding requests. One result line is streamed back
+     * per record as soon as the record is done; results carry the line number of their record.
+     */
+    @PostMapping(value = "/onboard/batch",
+                 consumes = MediaType.APPLICATION_NDJSON_VALUE,
+                 produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> onboardProductBatch(HttpServletRequest request) {
+        log.info("Received batch onboarding request");
+        StreamingResponseBody body = output -> batchOnboardingService.process(request.getInputStream(), output);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
     }
 
     @GetMapping("/config")
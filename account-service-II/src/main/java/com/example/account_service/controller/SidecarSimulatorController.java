@@ -0,0 +1,69 @@
+package com.example.account_service.controller;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.account_service.config.UpstreamSimulatorProperties;
+import com.example.account_service.util.UpstreamSimulator;
+
+
+/**
+ * Stand-in for the sidecar container, only present while the upstream simulator is enabled.
+ * Issues unsigned JWTs with an exp claim, answering with the latency and error rate configured
+ * for the "sidecar" endpoint.
+ */
+@RestController
+@RequestMapping("/sidecar")
+@ConditionalOnProperty(prefix = "account-service.upstream-simulator", name = "enabled", havingValue = "true")
+public class SidecarSimulatorController {
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final String HEADER = ENCODER.encodeToString("{\"alg\":\"none\",\"typ\":\"JWT\"}"
+            .getBytes(StandardCharsets.UTF_8));
+
+    private final UpstreamSimulator upstreamSimulator;
+    private final UpstreamSimulatorProperties properties;
+
+    @Autowired
+    public SidecarSimulatorController(UpstreamSimulator upstreamSimulator, UpstreamSimulatorProperties properties) {
+        this.upstreamSimulator = upstreamSimulator;
+        this.properties = properties;
+    }
+
+    @GetMapping("/authn-token")
+    public ResponseEntity<String> authnToken() {
+        return issue("/sidecar/authn-token", "authn");
+    }
+
+    @GetMapping("/authz-token")
+    public ResponseEntity<String> authzToken() {
+        return issue("/sidecar/authz-token", "authz");
+    }
+
+    private ResponseEntity<String> issue(String path, String type) {
+        HttpStatus error;
+        try {
+            error = upstreamSimulator.simulate(path);
+        } catch (ResourceAccessException e) {
+            // The caller has given up by now
+            return ResponseEntity.status(HttpStatus.GATEWAY_TIMEOUT).build();
+        }
+        if (error != null) {
+            return ResponseEntity.status(error).body("Simulated " + error.getReasonPhrase());
+        }
+
+        long exp = Instant.now().plus(properties.getTokenTtl()).getEpochSecond();
+        String claims = "{\"sub\":\"account-service\",\"typ\":\"" + type + "\",\"exp\":" + exp + "}";
+        return ResponseEntity.ok(HEADER + "." + ENCODER.encodeToString(claims.getBytes(StandardCharsets.UTF_8)) + ".");
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchOnboardingResult {
+
+    private long line;           // Line of the record in the request body, starting at 1
+    private String transactionId;
+    private int httpStatus;      // 200, 400 for invalid records, 500
+    private String message;      // Final response message
+    private String caseId;       // Orinoco case ID if a feature failed, otherwise null
+}
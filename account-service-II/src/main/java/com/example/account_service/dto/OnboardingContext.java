@@ -0,0 +1,71 @@
+package com.example.account_service.dto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+import com.example.account_service.config.ProductCatalog;
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.features.engine.FeatureProgressListener;
+
+import lombok.Builder;
+import lombok.ToString;
+import lombok.Value;
+import lombok.With;
+
+/**
+ * Validated, immutable context of one onboarding, built once from the request and passed to the
+ * product service and every feature.
+ */
+@Value
+@Builder
+public class OnboardingContext {
+
+    private static final String NONE = "NONE";
+
+    String transactionId;
+    String fkn;
+    String brand;                       // Brand as configured in the catalog (e.g., "BrandA")
+    String productCode;                 // Product code without the brand (e.g., "BCA")
+    CustomerType customerType;
+    String simulateFailure;
+    String failureTarget;
+    boolean pinSet;
+    boolean onlineBankingOptIn;
+
+    @ToString.Exclude
+    ProductCatalog.Entry catalogEntry;  // Product configuration resolved from the catalog
+
+    @With
+    @ToString.Exclude
+    FeatureProgressListener progressListener;  // Only set for asynchronous onboardings
+
+    @With
+    @ToString.Exclude
+    Set<String> completedFeatures;      // Features completed by earlier attempts; only set when resuming
+
+    public String getSimulateFailureOrNone() {
+        return simulateFailure != null ? simulateFailure : NONE;
+    }
+
+    public String getFailureTargetOrNone() {
+        return failureTarget != null ? failureTarget : NONE;
+    }
+
+    /**
+     * Returns the request values as a map, e.g. as additional context for the back office.
+     */
+    public Map<String, Object> toMap() {
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("transactionId", transactionId);
+        map.put("fkn", fkn);
+        map.put("productCode", productCode);
+        map.put("simulateFailure", simulateFailure);
+        map.put("failureTarget", failureTarget);
+        map.put("pinSet", pinSet);
+        map.put("onlineBankingOptIn", onlineBankingOptIn);
+        map.put("brand", brand);
+        map.put("customerType", customerType);
+        return map;
+    }
+}
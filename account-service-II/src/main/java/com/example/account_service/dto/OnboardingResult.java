@@ -0,0 +1,18 @@
+package com.example.account_service.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OnboardingResult {
+
+    private String transactionId;
+    private int httpStatus;      // Status returned to the client (200 or 500)
+    private String message;      // Final response message
+    private String caseId;       // Orinoco case ID if a feature failed, otherwise null
+}
@@ -0,0 +1,87 @@
+package com.example.account_service.dto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import lombok.Getter;
+
+/**
+ * Progress of an asynchronously processed onboarding, exposed through the status resource.
+ */
+@Getter
+public class OnboardingStatus {
+
+    public enum State {
+        ACCEPTED,       // Queued, not started yet
+        IN_PROGRESS,    // Features are being executed
+        COMPLETED,      // All features completed successfully
+        CASE_CREATED,   // A feature failed and an Orinoco case was raised
+        FAILED          // Onboarding failed with an error
+    }
+
+    private final String transactionId;
+    private final LocalDateTime acceptedAt;
+    private final List<String> completedFeatures = new CopyOnWriteArrayList<>();
+    private final List<String> skippedFeatures = new CopyOnWriteArrayList<>();
+    private volatile State state;
+    private volatile LocalDateTime updatedAt;
+    private volatile String message;
+    private volatile String caseId;
+
+    public OnboardingStatus(String transactionId) {
+        this.transactionId = transactionId;
+        this.acceptedAt = LocalDateTime.now();
+        this.updatedAt = acceptedAt;
+        this.state = State.ACCEPTED;
+    }
+
+    public OnboardingStatus(String transactionId, State state, String message, LocalDateTime updatedAt) {
+        this.transactionId = transactionId;
+        this.acceptedAt = updatedAt;
+        this.updatedAt = updatedAt;
+        this.state = state;
+        this.message = message;
+    }
+
+    @JsonIgnore
+    public boolean isTerminal() {
+        return state == State.COMPLETED || state == State.CASE_CREATED || state == State.FAILED;
+    }
+
+    public void markInProgress() {
+        update(State.IN_PROGRESS);
+    }
+
+    public void featureCompleted(String featureName) {
+        completedFeatures.add(featureName);
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void featureSkipped(String featureName) {
+        skippedFeatures.add(featureName);
+        updatedAt = LocalDateTime.now();
+    }
+
+    public void complete(OnboardingResult result) {
+        this.message = result.getMessage();
+        this.caseId = result.getCaseId();
+        if (result.getHttpStatus() != 200) {
+            update(State.FAILED);
+        } else {
+            update(result.getCaseId() != null ? State.CASE_CREATED : State.COMPLETED);
+        }
+    }
+
+    public void fail(String message) {
+        this.message = message;
+        update(State.FAILED);
+    }
+
+    private void update(State state) {
+        this.updatedAt = LocalDateTime.now();
+        this.state = state;
+    }
+}
@@ -34,48 +34,42 @@ public class OrinocoCasePayload {
     private Map<String, Object> additionalContext;
 
     /**
-     * Factory method to create an OrinocoCasePayload from the request context and error message.
-     * Dynamically maps the customer type and builds the payload.
+     * Factory method to create an OrinocoCasePayload from the onboarding context and error message.
      *
-     * @param requestContext The request context containing all necessary fields.
+     * @param context The onboarding context containing all necessary fields.
+     * @param caseId The unique case ID, e.g. from the CaseIdGenerator.
      * @param errorMessage The error message describing the failure.
      * @return An OrinocoCasePayload instance populated with data.
      */
-    public static OrinocoCasePayload createFromContext(Map<String, Object> requestContext, String errorMessage) {
-        // Extract the CustomerType from the request context
-        CustomerType customerType = (CustomerType) requestContext.get("customerType");
-
+    public static OrinocoCasePayload createFromContext(OnboardingContext context, String caseId, String errorMessage) {
         return OrinocoCasePayload.builder()
-            // Extract fields from the request context
-            .transactionId((String) requestContext.get("transactionId"))
-            .fkn((String) requestContext.get("fkn"))
-            .productCode((String) requestContext.get("productCode"))
-            .customerType(customerType)  // Use the CustomerType enum directly
+            // Fields from the onboarding context
+            .transactionId(context.getTransactionId())
+            .fkn(context.getFkn())
+            .productCode(context.getProductCode())
+            .customerType(context.getCustomerType())
 
             // Derived fields
-            .caseId("CASE-" + System.currentTimeMillis())
+            .caseId(caseId)
             //.caseCreationTimestamp(LocalDateTime.now())
             .errorMessage(errorMessage)
 
             // Constant fields
             .channel("DIGITAL_BANKING")
-            .severity(determineSeverity(requestContext))  // Updated severity logic
+            .severity(determineSeverity(context.getSimulateFailure()))
 
-            // Additional context (e.g., full request context for debugging)
-            .additionalContext(requestContext)
+            // Additional context (e.g., request values for debugging)
+            .additionalContext(context.toMap())
             .build();
     }
 
     /**
      * Determines the severity of the case based on the simulateFailure value.
      *
-     * @param requestContext The request context containing relevant flags like simulateFailure.
+     * @param simulateFailure The simulateFailure value of the request (may be null).
      * @return The severity as a string (e.g., HIGH, MEDIUM, LOW).
      */
-    private static String determineSeverity(Map<String, Object> requestContext) {
-        // Fetch the simulateFailure value as a String
-        String simulateFailure = (String) requestContext.getOrDefault("simulateFailure", "NONE");
-
+    private static String determineSeverity(String simulateFailure) {
         // Determine severity based on the failure type
         if ("NETWORK_ERROR".equalsIgnoreCase(simulateFailure) || "SERVICE_UNAVAILABLE".equalsIgnoreCase(simulateFailure)) {
             return "HIGH";
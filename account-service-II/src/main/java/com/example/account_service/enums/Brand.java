@@ -1,15 +1,27 @@
 package com.example.account_service.enums;
 
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
 public enum Brand {
     BRANDA,
     BRANDB,
     BRANDC;
 
+    private static final Map<String, Brand> BY_NAME = new HashMap<>();
+
+    static {
+        for (Brand brand : values()) {
+            BY_NAME.put(brand.name(), brand);
+        }
+    }
+
     public static Brand fromString(String brandName) {
-        try {
-            return Brand.valueOf(brandName.toUpperCase());
-        } catch (IllegalArgumentException e) {
+        Brand brand = brandName != null ? BY_NAME.get(brandName.toUpperCase(Locale.ROOT)) : null;
+        if (brand == null) {
             throw new IllegalArgumentException("Invalid brand name: " + brandName);
         }
+        return brand;
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,23 @@
 package com.example.account_service.enums;
 
-import java.util.Arrays;
-
 public enum CustomerType {
     NATURAL_PERSON(1),   // Individual
     LEGAL_ENTITY(3);     // Corporate
 
+    // Customer types indexed by code; codes are small, so an array is the cheapest lookup
+    private static final CustomerType[] BY_CODE;
+
+    static {
+        int maxCode = 0;
+        for (CustomerType customerType : values()) {
+            maxCode = Math.max(maxCode, customerType.code);
+        }
+        BY_CODE = new CustomerType[maxCode + 1];
+        for (CustomerType customerType : values()) {
+            BY_CODE[customerType.code] = customerType;
+        }
+    }
+
     private final int code;
 
     CustomerType(int code) {
@@ -18,9 +30,10 @@ public enum CustomerType {
 
     // Method to get CustomerType by code
     public static CustomerType fromCode(int code) {
-        return Arrays.stream(values())
-                .filter(customerType -> customerType.getCode() == code)
-                .findFirst()
-                .orElseThrow(() -> new IllegalArgumentException("Invalid customer type code: " + code));
+        CustomerType customerType = code >= 0 && code < BY_CODE.length ? BY_CODE[code] : null;
+        if (customerType == null) {
+            throw new IllegalArgumentException("Invalid customer type code: " + code);
+        }
+        return customerType;
     }
-}
\ No newline at end of file
+}
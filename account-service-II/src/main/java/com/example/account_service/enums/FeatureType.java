@@ -0,0 +1,45 @@
+package com.example.account_service.enums;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public enum FeatureType {
+    SCHUFA("schufa-check", "schufa"),
+    ACCOUNT_OPENING("account-opening", "accountOpening"),
+    PIN_ACTIVATION("activate-pin", "pinActivation"),
+    ONLINE_BANKING_ACTIVATION("activate-online-banking", "onlineBankingActivation");
+
+    private static final Map<String, FeatureType> BY_CONFIG_KEY = new HashMap<>();
+
+    static {
+        for (FeatureType featureType : values()) {
+            BY_CONFIG_KEY.put(featureType.configKey, featureType);
+        }
+    }
+
+    private final String featureName;
+    private final String configKey;
+
+    FeatureType(String featureName, String configKey) {
+        this.featureName = featureName;
+        this.configKey = configKey;
+    }
+
+    // Name used for upstream endpoints and audit rows (e.g., "schufa-check")
+    public String getFeatureName() {
+        return featureName;
+    }
+
+    // Key of the feature in product-config.yml (e.g., "schufa")
+    public String getConfigKey() {
+        return configKey;
+    }
+
+    public static FeatureType fromConfigKey(String configKey) {
+        FeatureType featureType = BY_CONFIG_KEY.get(configKey);
+        if (featureType == null) {
+            throw new IllegalArgumentException("Invalid feature: " + configKey);
+        }
+        return featureType;
+    }
+}
@@ -1,7 +1,7 @@
 package com.example.account_service.features;
 
-import java.util.Map;
+import com.example.account_service.dto.OnboardingContext;
 
 public interface ProductFeature {
-    void execute(Map<String, Object> requestContext) throws Exception;
-}
\ No newline at end of file
+    void execute(OnboardingContext context) throws Exception;
+}
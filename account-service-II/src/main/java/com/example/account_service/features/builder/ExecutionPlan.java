@@ -0,0 +1,141 @@
+package com.example.account_service.features.builder;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.enums.FeatureType;
+import com.example.account_service.features.ProductFeature;
+
+/**
+ * Immutable, precompiled feature execution plan for one product and customer type.
+ * Steps are in a dependency-respecting order (ties broken by priority), hold the resolved
+ * feature instances and know which steps they depend on, so independent steps can run concurrently.
+ */
+public final class ExecutionPlan {
+
+    private final String brand;
+    private final String productCode;
+    private final CustomerType customerType;
+    private final List<Step> steps;
+    private final boolean sequential;
+
+    ExecutionPlan(String brand, String productCode, CustomerType customerType, List<Step> steps) {
+        this.brand = brand;
+        this.productCode = productCode;
+        this.customerType = customerType;
+        this.steps = Collections.unmodifiableList(steps);
+        this.sequential = isChain(steps);
+    }
+
+    public String getBrand() {
+        return brand;
+    }
+
+    public String getProductCode() {
+        return productCode;
+    }
+
+    public CustomerType getCustomerType() {
+        return customerType;
+    }
+
+    public List<Step> getSteps() {
+        return steps;
+    }
+
+    /**
+     * Returns true if every step depends on the one before it, i.e. nothing can run concurrently.
+     */
+    public boolean isSequential() {
+        return sequential;
+    }
+
+    @Override
+    public String toString() {
+        return brand + "-" + productCode + " (" + customerType + "): " + steps;
+    }
+
+    private static boolean isChain(List<Step> steps) {
+        for (int i = 1; i < steps.size(); i++) {
+            if (!steps.get(i).dependencies.contains(steps.get(i - 1))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A single feature of the plan together with the gate that decides whether it runs
+     * and the steps that have to complete before it may start.
+     */
+    public static final class Step {
+        private final int index;
+        private final FeatureType featureType;
+        private final int priority;
+        private final ProductFeature feature;
+        private final FeatureGate gate;
+        private List<Step> dependencies = new ArrayList<>();
+        private List<Step> dependents = new ArrayList<>();
+
+        Step(int index, FeatureType featureType, int priority, ProductFeature feature, FeatureGate gate) {
+            this.index = index;
+            this.featureType = featureType;
+            this.priority = priority;
+            this.feature = feature;
+            this.gate = gate;
+        }
+
+        // Position of the step in the plan
+        public int getIndex() {
+            return index;
+        }
+
+        public FeatureType getFeatureType() {
+            return featureType;
+        }
+
+        public int getPriority() {
+            return priority;
+        }
+
+        public ProductFeature getFeature() {
+            return feature;
+        }
+
+        public FeatureGate getGate() {
+            return gate;
+        }
+
+        public List<Step> getDependencies() {
+            return dependencies;
+        }
+
+        public List<Step> getDependents() {
+            return dependents;
+        }
+
+        void addDependency(Step dependency) {
+            dependencies.add(dependency);
+            dependency.dependents.add(this);
+        }
+
+        void freeze() {
+            dependencies = Collections.unmodifiableList(dependencies);
+            dependents = Collections.unmodifiableList(dependents);
+        }
+
+        @Override
+        public String toString() {
+            if (dependencies.isEmpty()) {
+                return featureType.getFeatureName();
+            }
+            StringBuilder sb = new StringBuilder(featureType.getFeatureName()).append(" <- ");
+            for (int i = 0; i < dependencies.size(); i++) {
+                sb.append(i == 0 ? "" : "+").append(dependencies.get(i).featureType.getFeatureName());
+            }
+            return sb.toString();
+        }
+    }
+}
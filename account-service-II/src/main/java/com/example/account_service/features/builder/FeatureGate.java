@@ -0,0 +1,36 @@
+package com.example.account_service.features.builder;
+
+import java.util.function.Predicate;
+
+import com.example.account_service.dto.OnboardingContext;
+
+/**
+ * Request-dependent condition that decides whether a planned feature runs.
+ */
+public enum FeatureGate {
+    ALWAYS(context -> true, null),
+    PIN_SET(OnboardingContext::isPinSet, "the customer did not set a PIN"),
+    ONLINE_BANKING_OPT_IN(OnboardingContext::isOnlineBankingOptIn, "the customer did not request it");
+
+    private final Predicate<OnboardingContext> condition;
+    private final String skipReason;
+
+    FeatureGate(Predicate<OnboardingContext> condition, String skipReason) {
+        this.condition = condition;
+        this.skipReason = skipReason;
+    }
+
+    /**
+     * Checks the gate against the onboarding context.
+     *
+     * @param context The onboarding context holding the customer's choices.
+     * @return true if the feature should be executed.
+     */
+    public boolean isOpen(OnboardingContext context) {
+        return condition.test(context);
+    }
+
+    public String getSkipReason() {
+        return skipReason;
+    }
+}
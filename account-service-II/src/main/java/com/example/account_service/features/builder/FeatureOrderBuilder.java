@@ -1,15 +1,23 @@
 package com.example.account_service.features.builder;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.example.account_service.config.ProductCatalog;
 import com.example.account_service.config.ProductConfig;
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.enums.FeatureType;
+import com.example.account_service.features.factory.ProductFeatureFactory;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,48 +25,128 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class FeatureOrderBuilder {
 
-    private final ProductConfig productConfig;
+    // Features each customer type takes part in; legal entities are not SCHUFA checked
+    private static final Map<CustomerType, Set<FeatureType>> SUPPORTED_FEATURES = new EnumMap<>(Map.of(
+        CustomerType.NATURAL_PERSON, EnumSet.allOf(FeatureType.class),
+        CustomerType.LEGAL_ENTITY, EnumSet.complementOf(EnumSet.of(FeatureType.SCHUFA))
+    ));
+
+    private final ProductCatalog productCatalog;
+    private final ProductFeatureFactory featureFactory;
+    private final Map<ProductCatalog.Entry, Map<CustomerType, ExecutionPlan>> executionPlans;
 
     @Autowired
-    public FeatureOrderBuilder(ProductConfig productConfig) {
-        this.productConfig = productConfig;
+    public FeatureOrderBuilder(ProductCatalog productCatalog, ProductFeatureFactory featureFactory) {
+        this.productCatalog = productCatalog;
+        this.featureFactory = featureFactory;
+        this.executionPlans = buildExecutionPlans();
     }
 
     /**
-     * Builds the ordered list of features for execution based on product configuration priorities.
+     * Returns the precompiled execution plan for the product and customer type.
      *
-     * @param product The product configuration.
-     * @return A list of features in the correct execution order.
+     * @param catalogEntry The product resolved from the catalog.
+     * @param customerType The customer type of the request.
+     * @return The cached execution plan.
      */
-    public List<String> buildFeatureOrder(ProductConfig.Product product) {
-        List<FeatureWithPriority> featuresWithPriorities = new ArrayList<>();
+    public ExecutionPlan getExecutionPlan(ProductCatalog.Entry catalogEntry, CustomerType customerType) {
+        Map<CustomerType, ExecutionPlan> plans = executionPlans.get(catalogEntry);
+        ExecutionPlan plan = plans == null ? null : plans.get(customerType);
+        if (plan == null) {
+            throw new IllegalArgumentException("No execution plan for product: " + catalogEntry + ", customer type: " + customerType);
+        }
+        return plan;
+    }
 
-        log.info("Building feature execution order for product: {}", product.getProductCode());
+    /**
+     * Builds the execution plan for a product based on configuration priorities and declared dependencies.
+     * Plans are compiled once at startup; use {@link #getExecutionPlan} on the request path.
+     *
+     * @param catalogEntry The product resolved from the catalog.
+     * @param customerType The customer type the plan is built for.
+     * @return The features in a dependency-respecting execution order, with their gates.
+     */
+    public ExecutionPlan buildFeatureOrder(ProductCatalog.Entry catalogEntry, CustomerType customerType) {
+        List<PlannedFeature> planned = new ArrayList<>();
 
-        ProductConfig.ProductFeatures features = product.getFeatures();
+        ProductConfig.ProductFeatures features = catalogEntry.getProduct().getFeatures();
+        Set<FeatureType> supported = SUPPORTED_FEATURES.get(customerType);
 
         // Add features to the list with their priorities if they are enabled
-        if (features.isPinActivationEnabled()) {
-            featuresWithPriorities.add(new FeatureWithPriority("PINActivation", features.getPinActivation().getPriority()));
+        if (features != null) {
+            if (features.isPinActivationEnabled()) {
+                addFeature(planned, supported, FeatureType.PIN_ACTIVATION, features.getPinActivation().getPriority(),
+                        features.getPinActivation().getDependsOn(), FeatureGate.PIN_SET);
+            }
+            if (features.isAccountOpeningEnabled()) {
+                addFeature(planned, supported, FeatureType.ACCOUNT_OPENING, features.getAccountOpening().getPriority(),
+                        features.getAccountOpening().getDependsOn(), FeatureGate.ALWAYS);
+            }
+            if (features.isSchufaEnabled()) {
+                addFeature(planned, supported, FeatureType.SCHUFA, features.getSchufa().getPriority(),
+                        features.getSchufa().getDependsOn(), FeatureGate.ALWAYS);
+            }
+            if (features.isOnlineBankingEnabled()) {
+                addFeature(planned, supported, FeatureType.ONLINE_BANKING_ACTIVATION,
+                        features.getOnlineBankingActivation().getPriority(),
+                        features.getOnlineBankingActivation().getDependsOn(), FeatureGate.ONLINE_BANKING_OPT_IN);
+            }
         }
-        if (features.isAccountOpeningEnabled()) {
-            featuresWithPriorities.add(new FeatureWithPriority("AccountOpening", features.getAccountOpening().getPriority()));
-        }
-        if (features.isSchufaEnabled()) {
-            featuresWithPriorities.add(new FeatureWithPriority("Schufa", features.getSchufa().getPriority()));
+
+        // Resolve dependencies: declared ones by config key, otherwise every feature with a lower priority
+        Map<FeatureType, PlannedFeature> byType = new EnumMap<>(FeatureType.class);
+        for (PlannedFeature feature : planned) {
+            byType.put(feature.featureType, feature);
         }
-        if (features.isOnlineBankingEnabled()) {
-            featuresWithPriorities.add(new FeatureWithPriority("OnlineBankingActivation", features.getOnlineBankingActivation().getPriority()));
+        for (PlannedFeature feature : planned) {
+            if (feature.dependsOn == null) {
+                for (PlannedFeature other : planned) {
+                    if (other.priority < feature.priority) {
+                        feature.dependencies.add(other);
+                    }
+                }
+            } else {
+                for (String configKey : feature.dependsOn) {
+                    // Dependencies on features this product or customer type does not run are satisfied trivially
+                    PlannedFeature dependency = byType.get(FeatureType.fromConfigKey(configKey));
+                    if (dependency != null && dependency != feature) {
+                        feature.dependencies.add(dependency);
+                    }
+                }
+            }
         }
 
-        // Sort the features by priority
-        List<String> executionOrder = featuresWithPriorities.stream()
-            .sorted((f1, f2) -> Integer.compare(f1.getPriority(), f2.getPriority())) // Sort by priority
-            .map(FeatureWithPriority::getName) // Extract feature names
-            .collect(Collectors.toList());
+        // Order topologically, picking the lowest priority among the ready features (stable for equal priorities)
+        List<ExecutionPlan.Step> steps = new ArrayList<>(planned.size());
+        Map<PlannedFeature, ExecutionPlan.Step> stepByFeature = new HashMap<>();
+        List<PlannedFeature> pending = new ArrayList<>(planned);
+        pending.sort(Comparator.comparingInt(feature -> feature.priority));
+        while (!pending.isEmpty()) {
+            PlannedFeature next = null;
+            for (PlannedFeature candidate : pending) {
+                if (stepByFeature.keySet().containsAll(candidate.dependencies)) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                throw new IllegalStateException("Cyclic feature dependencies for product " + catalogEntry + ": " + pending);
+            }
+            pending.remove(next);
+
+            ExecutionPlan.Step step = new ExecutionPlan.Step(steps.size(), next.featureType, next.priority,
+                    featureFactory.getFeature(next.featureType), next.gate);
+            for (PlannedFeature dependency : next.dependencies) {
+                step.addDependency(stepByFeature.get(dependency));
+            }
+            stepByFeature.put(next, step);
+            steps.add(step);
+        }
+        for (ExecutionPlan.Step step : steps) {
+            step.freeze();
+        }
 
-        log.info("Execution order for product {}: {}", product.getProductCode(), executionOrder);
-        return executionOrder;
+        return new ExecutionPlan(catalogEntry.getBrand(), catalogEntry.getProductCode(), customerType, steps);
     }
 
     /**
@@ -72,49 +160,64 @@ public class FeatureOrderBuilder {
         log.info("Fetching Online Banking subfeatures for brand: {}, productCode: {}", brand, productCode);
 
         // Retrieve the product configuration
-        ProductConfig.Product product = productConfig.getBrands().get(brand).getProducts().stream()
-            .filter(p -> p.getProductCode().equalsIgnoreCase(productCode))
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Product not found for brand: " + brand));
-
-        // Retrieve the OnlineBankingFeature
-        ProductConfig.OnlineBankingFeature onlineBankingFeature = product.getFeatures().getOnlineBankingActivation();
+        ProductCatalog.Entry catalogEntry = productCatalog.find(brand, productCode);
+        if (catalogEntry == null) {
+            throw new IllegalArgumentException("Product not found for brand: " + brand);
+        }
 
-        // Check if OnlineBankingFeature is present
-        if (onlineBankingFeature == null) {
+        // Subfeatures are precomputed by the catalog; null if online banking is not enabled
+        Map<String, Boolean> onlineBankingAttributes = catalogEntry.getOnlineBankingAttributes();
+        if (onlineBankingAttributes == null) {
             log.info("Online Banking Activation is not enabled for brand: {}, productCode: {}", brand, productCode);
             return null; // Return null or empty map if not enabled
         }
 
-        // Dynamically add subfeatures
-        Map<String, Boolean> onlineBankingAttributes = new LinkedHashMap<>();
-        ProductConfig.SubFeatures subFeatures = onlineBankingFeature.getSubFeatures();
-        if (subFeatures != null) {
-            onlineBankingAttributes.put("telephoneBanking", subFeatures.isTelephoneBanking());
-            onlineBankingAttributes.put("smsNotifications", subFeatures.isSmsNotifications());
-            onlineBankingAttributes.put("emailAlerts", subFeatures.isEmailAlerts());
-        }
-
         log.info("Online Banking Attributes for productCode {}: {}", productCode, onlineBankingAttributes);
         return onlineBankingAttributes;
     }
 
-    // Inner class to hold feature name and priority
-    private static class FeatureWithPriority {
-        private final String name;
-        private final int priority;
+    private void addFeature(List<PlannedFeature> planned, Set<FeatureType> supported, FeatureType featureType,
+                            int priority, List<String> dependsOn, FeatureGate gate) {
+        if (supported.contains(featureType)) {
+            planned.add(new PlannedFeature(featureType, priority, dependsOn, gate));
+        }
+    }
 
-        public FeatureWithPriority(String name, int priority) {
-            this.name = name;
-            this.priority = priority;
+    private Map<ProductCatalog.Entry, Map<CustomerType, ExecutionPlan>> buildExecutionPlans() {
+        Map<ProductCatalog.Entry, Map<CustomerType, ExecutionPlan>> plans = new HashMap<>();
+
+        for (ProductCatalog.Entry catalogEntry : productCatalog.getEntries()) {
+            Map<CustomerType, ExecutionPlan> byCustomerType = new EnumMap<>(CustomerType.class);
+            for (CustomerType customerType : CustomerType.values()) {
+                ExecutionPlan plan = buildFeatureOrder(catalogEntry, customerType);
+                byCustomerType.put(customerType, plan);
+                log.info("Execution order for product {} ({}): {}{}", catalogEntry, customerType, plan.getSteps(),
+                        plan.isSequential() ? "" : " [parallel]");
+            }
+            plans.put(catalogEntry, Collections.unmodifiableMap(byCustomerType));
         }
 
-        public String getName() {
-            return name;
+        return Collections.unmodifiableMap(plans);
+    }
+
+    // Inner class to hold a configured feature while its dependencies are resolved
+    private static class PlannedFeature {
+        private final FeatureType featureType;
+        private final int priority;
+        private final List<String> dependsOn;
+        private final FeatureGate gate;
+        private final List<PlannedFeature> dependencies = new ArrayList<>();
+
+        PlannedFeature(FeatureType featureType, int priority, List<String> dependsOn, FeatureGate gate) {
+            this.featureType = featureType;
+            this.priority = priority;
+            this.dependsOn = dependsOn;
+            this.gate = gate;
         }
 
-        public int getPriority() {
-            return priority;
+        @Override
+        public String toString() {
+            return featureType.getConfigKey();
         }
     }
-}
\ No newline at end of file
+}
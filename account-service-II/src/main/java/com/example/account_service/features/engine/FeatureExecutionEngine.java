@@ -0,0 +1,290 @@
+package com.example.account_service.features.engine;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import com.example.account_service.checkpoint.OnboardingCheckpointService;
+import com.example.account_service.config.FeatureExecutionProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.enums.FeatureType;
+import com.example.account_service.features.builder.ExecutionPlan;
+import com.example.account_service.util.OnboardingMetrics;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs the steps of an {@link ExecutionPlan}. Chains run inline on the calling thread; plans with
+ * independent steps start each step as soon as its dependencies are done, so the onboarding takes
+ * as long as its critical path. The first failure cancels every step still running or waiting and
+ * waits a bounded time for the running ones to finish, so none of them is still calling an upstream
+ * or writing its audit row once the failure is handled.
+ * When a plan fails, the features it completed are checkpointed; a resumed onboarding carries the
+ * features checkpointed by its earlier attempts in its context, and those are not run again.
+ * Plans that succeed write no checkpoints, as only failed onboardings are resumed.
+ */
+@Slf4j
+@Component
+public class FeatureExecutionEngine {
+
+    private final FeatureExecutionProperties executionProperties;
+    private final AsyncTaskExecutor executor;
+    private final OnboardingMetrics onboardingMetrics;
+    private final OnboardingCheckpointService checkpointService;
+
+    @Autowired
+    public FeatureExecutionEngine(FeatureExecutionProperties executionProperties, TaskExecutorFactory taskExecutorFactory,
+                                  OnboardingMetrics onboardingMetrics, OnboardingCheckpointService checkpointService) {
+        this.executionProperties = executionProperties;
+        this.onboardingMetrics = onboardingMetrics;
+        this.checkpointService = checkpointService;
+        this.executor = taskExecutorFactory.create("feature-", executionProperties.getPoolSize(),
+                executionProperties.getQueueCapacity());
+    }
+
+    /**
+     * Executes the plan for the request.
+     *
+     * @param plan           The precompiled execution plan.
+     * @param context        The onboarding context passed to every feature.
+     * @throws Exception The failure of the first feature that failed.
+     */
+    public void execute(ExecutionPlan plan, OnboardingContext context) throws Exception {
+        Set<String> checkpointed = context.getCompletedFeatures() != null ? context.getCompletedFeatures() : Set.of();
+        // Features completed by this attempt; concurrent steps add to it from pool threads
+        Set<FeatureType> completed = ConcurrentHashMap.newKeySet();
+
+        try {
+            if (plan.isSequential() || !executionProperties.isParallel()) {
+                executeSequentially(plan, context, checkpointed, completed);
+            } else {
+                executeConcurrently(plan, context, checkpointed, completed);
+            }
+        } catch (Exception e) {
+            checkpointService.record(context, completed);
+            throw e;
+        }
+    }
+
+    private void executeSequentially(ExecutionPlan plan, OnboardingContext context, Set<String> checkpointed,
+                                     Set<FeatureType> completed) throws Exception {
+        FeatureProgressListener listener = context.getProgressListener();
+        for (ExecutionPlan.Step step : plan.getSteps()) {
+            if (isCheckpointed(step, checkpointed)) {
+                resume(step, listener);
+            } else if (step.getGate().isOpen(context)) {
+                run(step, context, completed);
+                if (listener != null) {
+                    listener.onFeatureCompleted(step.getFeatureType());
+                }
+            } else {
+                skip(step, listener);
+            }
+        }
+    }
+
+    private void executeConcurrently(ExecutionPlan plan, OnboardingContext context, Set<String> checkpointed,
+                                     Set<FeatureType> completed) throws Exception {
+        FeatureProgressListener listener = context.getProgressListener();
+        List<ExecutionPlan.Step> steps = plan.getSteps();
+        int[] pendingDependencies = new int[steps.size()];
+        @SuppressWarnings("unchecked")
+        Future<ExecutionPlan.Step>[] inFlight = new Future[steps.size()];
+        CompletionService<ExecutionPlan.Step> completionService = new ExecutorCompletionService<>(executor);
+        RunningSteps running = new RunningSteps();
+        Deque<ExecutionPlan.Step> ready = new ArrayDeque<>();
+
+        for (ExecutionPlan.Step step : steps) {
+            pendingDependencies[step.getIndex()] = step.getDependencies().size();
+            if (step.getDependencies().isEmpty()) {
+                ready.add(step);
+            }
+        }
+
+        int done = 0;
+        while (done < steps.size()) {
+            // Start every step whose dependencies are done; closed gates count as done immediately
+            while (!ready.isEmpty()) {
+                ExecutionPlan.Step step = ready.poll();
+                if (isCheckpointed(step, checkpointed)) {
+                    resume(step, listener);
+                    done++;
+                    release(step, pendingDependencies, ready);
+                } else if (step.getGate().isOpen(context)) {
+                    inFlight[step.getIndex()] = completionService.submit(() -> {
+                        if (!running.enter()) {
+                            return step;
+                        }
+                        try {
+                            run(step, context, completed);
+                        } finally {
+                            running.exit();
+                        }
+                        return step;
+                    });
+                } else {
+                    skip(step, listener);
+                    done++;
+                    release(step, pendingDependencies, ready);
+                }
+            }
+            if (done == steps.size()) {
+                break;
+            }
+
+            ExecutionPlan.Step finished;
+            try {
+                finished = completionService.take().get();
+            } catch (ExecutionException e) {
+                cancel(inFlight, running);
+                Throwable cause = e.getCause();
+                if (cause instanceof Exception exception) {
+                    throw exception;
+                }
+                throw (Error) cause;
+            } catch (InterruptedException e) {
+                cancel(inFlight, running);
+                Thread.currentThread().interrupt();
+                throw e;
+            }
+
+            inFlight[finished.getIndex()] = null;
+            if (listener != null) {
+                listener.onFeatureCompleted(finished.getFeatureType());
+            }
+            done++;
+            release(finished, pendingDependencies, ready);
+        }
+    }
+
+    // Runs the feature, timing it per feature and product
+    private void run(ExecutionPlan.Step step, OnboardingContext context, Set<FeatureType> completed) throws Exception {
+        long start = System.nanoTime();
+        String outcome = OnboardingMetrics.FAILURE;
+        try {
+            step.getFeature().execute(context);
+            outcome = OnboardingMetrics.SUCCESS;
+        } finally {
+            onboardingMetrics.recordFeature(context, step.getFeatureType(), outcome, System.nanoTime() - start);
+        }
+        completed.add(step.getFeatureType());
+    }
+
+    private static boolean isCheckpointed(ExecutionPlan.Step step, Set<String> checkpointed) {
+        return checkpointed.contains(step.getFeatureType().getFeatureName());
+    }
+
+    private static void release(ExecutionPlan.Step step, int[] pendingDependencies, Deque<ExecutionPlan.Step> ready) {
+        for (ExecutionPlan.Step dependent : step.getDependents()) {
+            if (--pendingDependencies[dependent.getIndex()] == 0) {
+                ready.add(dependent);
+            }
+        }
+    }
+
+    // Interrupts the running steps and waits for them; blocking HTTP calls ignore the interrupt
+    private void cancel(Future<ExecutionPlan.Step>[] inFlight, RunningSteps running) {
+        running.close();
+        for (Future<ExecutionPlan.Step> future : inFlight) {
+            if (future != null) {
+                future.cancel(true);
+            }
+        }
+        int unfinished = running.awaitNone(executionProperties.getCancelWait());
+        if (unfinished > 0) {
+            log.warn("{} cancelled features still running after {}", unfinished, executionProperties.getCancelWait());
+        }
+    }
+
+    // Completed by an earlier attempt of the transaction
+    private static void resume(ExecutionPlan.Step step, FeatureProgressListener listener) {
+        log.info("Skipping {} as it completed in an earlier attempt.", step.getFeatureType().getFeatureName());
+        if (listener != null) {
+            listener.onFeatureCompleted(step.getFeatureType());
+        }
+    }
+
+    private static void skip(ExecutionPlan.Step step, FeatureProgressListener listener) {
+        log.info("Skipping {} as {}.", step.getFeatureType().getFeatureName(), step.getGate().getSkipReason());
+        if (listener != null) {
+            listener.onFeatureSkipped(step.getFeatureType());
+        }
+    }
+
+    // The steps of one plan execution currently running; once closed, steps not started yet do not run
+    private static final class RunningSteps {
+        private final Lock lock = new ReentrantLock();
+        private final Condition finished = lock.newCondition();
+        private int running;
+        private boolean closed;
+
+        boolean enter() {
+            lock.lock();
+            try {
+                if (closed) {
+                    return false;
+                }
+                running++;
+                return true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void exit() {
+            lock.lock();
+            try {
+                if (--running == 0) {
+                    finished.signalAll();
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void close() {
+            lock.lock();
+            try {
+                closed = true;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        // Returns the number of steps still running when the wait ended
+        int awaitNone(Duration timeout) {
+            long deadline = System.nanoTime() + timeout.toNanos();
+            lock.lock();
+            try {
+                while (running > 0) {
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (remainingNanos <= 0) {
+                        break;
+                    }
+                    finished.awaitNanos(remainingNanos);
+                }
+                return running;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return running;
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.account_service.features.engine;
+
+import com.example.account_service.enums.FeatureType;
+
+/**
+ * Receives progress of a running execution plan. Set on the onboarding context; callbacks are
+ * made by the thread coordinating the plan.
+ */
+public interface FeatureProgressListener {
+
+    void onFeatureCompleted(FeatureType featureType);
+
+    void onFeatureSkipped(FeatureType featureType);
+}
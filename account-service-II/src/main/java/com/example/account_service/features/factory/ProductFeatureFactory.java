@@ -1,8 +1,12 @@
 package com.example.account_service.features.factory;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import com.example.account_service.enums.FeatureType;
 import com.example.account_service.features.ProductFeature;
 import com.example.account_service.features.impl.AccountOpeningFeatureImpl;
 import com.example.account_service.features.impl.OnlineBankingActivationFeatureImpl;
@@ -12,34 +16,24 @@ import com.example.account_service.features.impl.SchufaCheckFeatureImpl;
 @Component
 public class ProductFeatureFactory {
 
-    private final AccountOpeningFeatureImpl accountOpeningFeature;
-    private final PinActivationFeatureImpl pinActivationFeature;
-    private final OnlineBankingActivationFeatureImpl onlineBankingFeature;
-    private final SchufaCheckFeatureImpl schufaCheckFeature;
+    private final Map<FeatureType, ProductFeature> features = new EnumMap<>(FeatureType.class);
 
     @Autowired
     public ProductFeatureFactory(AccountOpeningFeatureImpl accountOpeningFeature,
                                  PinActivationFeatureImpl pinActivationFeature,
                                  OnlineBankingActivationFeatureImpl onlineBankingFeature,
                                  SchufaCheckFeatureImpl schufaCheckFeature) {
-        this.accountOpeningFeature = accountOpeningFeature;
-        this.pinActivationFeature = pinActivationFeature;
-        this.onlineBankingFeature = onlineBankingFeature;
-        this.schufaCheckFeature = schufaCheckFeature;
+        features.put(FeatureType.ACCOUNT_OPENING, accountOpeningFeature);
+        features.put(FeatureType.PIN_ACTIVATION, pinActivationFeature);
+        features.put(FeatureType.ONLINE_BANKING_ACTIVATION, onlineBankingFeature);
+        features.put(FeatureType.SCHUFA, schufaCheckFeature);
     }
 
-    public ProductFeature getFeature(String featureType) {
-        switch (featureType) {
-            case "account-opening":
-                return accountOpeningFeature;
-            case "activate-pin":
-                return pinActivationFeature;
-            case "activate-online-banking":
-                return onlineBankingFeature;
-            case "schufa-check":
-                return schufaCheckFeature;
-            default:
-                throw new IllegalArgumentException("Unknown feature type: " + featureType);
+    public ProductFeature getFeature(FeatureType featureType) {
+        ProductFeature feature = features.get(featureType);
+        if (feature == null) {
+            throw new IllegalArgumentException("Unknown feature type: " + featureType);
         }
+        return feature;
     }
-}
\ No newline at end of file
+}
@@ -2,16 +2,17 @@ package com.example.account_service.features.impl;
 
 import java.util.HashMap;
 import java.util.Map;
-import java.util.Optional;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.dto.OnboardingContext;
 import com.example.account_service.features.ProductFeature;
+import com.example.account_service.util.EncodedPayload;
+import com.example.account_service.util.PayloadCodec;
 import com.example.account_service.util.RestClientUtilDummy;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -22,27 +23,23 @@ public class AccountOpeningFeatureImpl implements ProductFeature {
     private final RestClientUtilDummy restClientUtil;
     private final ApiCallLogService apiCallLogService;
 
-    ObjectMapper objectMapper = new ObjectMapper();
+    private final PayloadCodec payloadCodec;
 
     @Autowired
-    public AccountOpeningFeatureImpl(RestClientUtilDummy restClientUtil, ApiCallLogService apiCallLogService) {
+    public AccountOpeningFeatureImpl(RestClientUtilDummy restClientUtil, ApiCallLogService apiCallLogService,
+                                     PayloadCodec payloadCodec) {
         this.restClientUtil = restClientUtil;
         this.apiCallLogService = apiCallLogService;
+        this.payloadCodec = payloadCodec;
     }
 
     @Override
-    public void execute(Map<String, Object> requestContext) throws Exception {
-        String transactionId = (String) requestContext.get("transactionId");
-        String fkn = (String) requestContext.get("fkn");
-        String productCode = (String) requestContext.get("productCode");
-        // Using Optional (preferred for null safety):
-        String simulateFailure = Optional.ofNullable(requestContext.get("simulateFailure"))
-                                        .map(String::valueOf)  // Convert to String if present
-                                        .orElse("NONE");      // Default to "NONE" if null or absent
-
-        String failureTarget = Optional.ofNullable(requestContext.get("failureTarget"))
-                                        .map(String::valueOf)
-                                        .orElse("NONE");
+    public void execute(OnboardingContext context) throws Exception {
+        String transactionId = context.getTransactionId();
+        String fkn = context.getFkn();
+        String productCode = context.getProductCode();
+        String simulateFailure = context.getSimulateFailureOrNone();  // "NONE" if absent
+        String failureTarget = context.getFailureTargetOrNone();
 
         String url = "https://upstream.api/account-opening?fkn=" + fkn + "&productCode=" + productCode;
 
@@ -51,17 +48,19 @@ public class AccountOpeningFeatureImpl implements ProductFeature {
         payload.put("transactionId", transactionId);
         payload.put("fkn", fkn);
         payload.put("productCode", productCode);
-        payload.put("customerType", requestContext.get("customerType"));  // Example of adding customer type
+        payload.put("customerType", context.getCustomerType());  // Example of adding customer type
         payload.put("channel", "digital-banking");  // Constant field
-        payload.put("simulateFailure", simulateFailure);  // Derived from request context
-        payload.put("failureTarget", failureTarget);  // Derived from request context
+        payload.put("simulateFailure", simulateFailure);  // Derived from the onboarding context
+        payload.put("failureTarget", failureTarget);  // Derived from the onboarding context
         // Add any derived fields if necessary (for example, onboarding calculated values)
         //payload.put("timestamp", System.currentTimeMillis());  // Example of adding a derived field
 
+        // Encode the payload once; the same bytes are sent and logged
+        EncodedPayload encodedPayload = payloadCodec.encode(payload);
+
         // Send the payload in the API call
-        ResponseEntity<String> response = restClientUtil.makePostCall(url, payload);
+        ResponseEntity<String> response = restClientUtil.makePostCall(url, encodedPayload);
 
-        String jsonString = objectMapper.writeValueAsString(payload);
         // Log the response in the database
         apiCallLogService.logApiResponse(
             transactionId,
@@ -69,7 +68,7 @@ public class AccountOpeningFeatureImpl implements ProductFeature {
             fkn,
             productCode,
             response.getStatusCode().toString(),
-            jsonString,
+            encodedPayload.asString(),
             response.getBody()
         );
 
@@ -1,5 +1,6 @@
 package com.example.account_service.features.impl;
 
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -8,10 +9,12 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import com.example.account_service.audit.ApiCallLogService;
-import com.example.account_service.config.ProductConfig;
+import com.example.account_service.config.ProductCatalog;
+import com.example.account_service.dto.OnboardingContext;
 import com.example.account_service.features.ProductFeature;
+import com.example.account_service.util.EncodedPayload;
+import com.example.account_service.util.PayloadCodec;
 import com.example.account_service.util.RestClientUtilDummy;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -21,46 +24,43 @@ public class OnlineBankingActivationFeatureImpl implements ProductFeature {
 
     private final RestClientUtilDummy restClientUtil;
     private final ApiCallLogService apiCallLogService;
-    private final ProductConfig productConfig;
-    private final ObjectMapper objectMapper = new ObjectMapper(); // For JSON serialization
+    private final PayloadCodec payloadCodec; // Shared JSON serialization
 
     @Autowired
     public OnlineBankingActivationFeatureImpl(RestClientUtilDummy restClientUtil,
                                               ApiCallLogService apiCallLogService,
-                                              ProductConfig productConfig) {
+                                              PayloadCodec payloadCodec) {
         this.restClientUtil = restClientUtil;
         this.apiCallLogService = apiCallLogService;
-        this.productConfig = productConfig;
+        this.payloadCodec = payloadCodec;
     }
 
     @Override
-    public void execute(Map<String, Object> requestContext) throws Exception {
-        String brand = (String) requestContext.get("brand");
-        String productCode = (String) requestContext.get("productCode");
-        // Retrieve the product configuration
-        ProductConfig.Product product = productConfig.getBrands().get(brand).getProducts().stream()
-            .filter(p -> p.getProductCode().equalsIgnoreCase(productCode))
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Product not found for brand: " + brand));
-
-        // Check if online banking is enabled
-        ProductConfig.OnlineBankingFeature onlineBanking = product.getFeatures().getOnlineBankingActivation();
-        
-
-        // Retrieve subfeatures
-        Map<String, Boolean> subFeatures = getSubFeatures(onlineBanking);
+    public void execute(OnboardingContext context) throws Exception {
+        String productCode = context.getProductCode();
+        // Product configuration resolved once from the catalog when the request was validated
+        ProductCatalog.Entry catalogEntry = context.getCatalogEntry();
+
+        // Subfeatures are precomputed per product; empty if none are configured
+        Map<String, Boolean> subFeatures = catalogEntry.getOnlineBankingAttributes();
+        if (subFeatures == null) {
+            subFeatures = Collections.emptyMap();
+        }
 
         // Build the custom payload for the Online Banking Activation API
-        Map<String, Object> payload = buildPayload(requestContext, productCode, subFeatures);
+        Map<String, Object> payload = buildPayload(context, productCode, subFeatures);
+
+        // Encode the payload once; the same bytes are sent and logged
+        EncodedPayload encodedPayload = payloadCodec.encode(payload);
 
-        log.info("Payload for Online Banking Activation: {}", payload);
+        log.info("Payload for Online Banking Activation: {}", encodedPayload);
 
         // Send the payload in the API call
         String url = "https://upstream.api/activate-online-banking";
-        ResponseEntity<String> response = restClientUtil.makePostCall(url, payload);
+        ResponseEntity<String> response = restClientUtil.makePostCall(url, encodedPayload);
 
         // Log the request and response in the database
-        logApiCall(requestContext, productCode, payload, response);
+        logApiCall(context, productCode, encodedPayload, response);
 
         // Handle non-successful responses
         if (!response.getStatusCode().is2xxSuccessful()) {
@@ -71,43 +71,29 @@ public class OnlineBankingActivationFeatureImpl implements ProductFeature {
         log.info("Online Banking Activation successfully completed for product: {}", productCode);
     }
 
-    private Map<String, Boolean> getSubFeatures(ProductConfig.OnlineBankingFeature onlineBanking) {
-        Map<String, Boolean> subFeaturesMap = new HashMap<>();
-        ProductConfig.SubFeatures subFeatures = onlineBanking.getSubFeatures();
-
-        if (subFeatures != null) {
-            subFeaturesMap.put("telephoneBanking", subFeatures.isTelephoneBanking());
-            subFeaturesMap.put("smsNotifications", subFeatures.isSmsNotifications());
-            subFeaturesMap.put("emailAlerts", subFeatures.isEmailAlerts());
-        }
-
-        return subFeaturesMap;
-    }
-
-    private Map<String, Object> buildPayload(Map<String, Object> requestContext, String productCode, Map<String, Boolean> subFeatures) {
+    private Map<String, Object> buildPayload(OnboardingContext context, String productCode, Map<String, Boolean> subFeatures) {
         Map<String, Object> payload = new HashMap<>();
-        payload.put("transactionId", requestContext.get("transactionId"));
-        payload.put("fkn", requestContext.get("fkn"));
+        payload.put("transactionId", context.getTransactionId());
+        payload.put("fkn", context.getFkn());
         payload.put("productCode", productCode);
-        payload.put("customerType", requestContext.get("customerType"));
+        payload.put("customerType", context.getCustomerType());
         payload.put("channel", "digital-banking");
-        payload.put("simulateFailure", requestContext.get("simulateFailure"));
-        payload.put("failureTarget", requestContext.get("failureTarget"));
+        payload.put("simulateFailure", context.getSimulateFailure());
+        payload.put("failureTarget", context.getFailureTarget());
         payload.putAll(subFeatures); // Add subfeatures to the payload
         return payload;
     }
 
-    private void logApiCall(Map<String, Object> requestContext, String productCode, Map<String, Object> payload, ResponseEntity<String> response) throws Exception {
-        String transactionId = (String) requestContext.get("transactionId");
-        String jsonPayload = objectMapper.writeValueAsString(payload);
+    private void logApiCall(OnboardingContext context, String productCode, EncodedPayload payload, ResponseEntity<String> response) {
+        String transactionId = context.getTransactionId();
 
         apiCallLogService.logApiResponse(
             transactionId,
             "activate-online-banking",
-            (String) requestContext.get("fkn"),
+            context.getFkn(),
             productCode,
             response.getStatusCode().toString(),
-            jsonPayload,
+            payload.asString(),
             response.getBody()
         );
     }
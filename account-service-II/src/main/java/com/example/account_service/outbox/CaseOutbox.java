@@ -0,0 +1,61 @@
+package com.example.account_service.outbox;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.util.PayloadCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+/**
+ * Records cases for delivery to Orinoco Case Management. The outbox row and the audit row of the
+ * case are written in one transaction: once this returns, the case is durable and will be delivered
+ * by the {@link CaseOutboxDispatcher}, even if this instance goes down.
+ */
+@Component
+public class CaseOutbox {
+
+    private final CaseOutboxRepository repository;
+    private final ApiCallLogService apiCallLogService;
+    private final PayloadCodec payloadCodec;
+
+    @Autowired
+    public CaseOutbox(CaseOutboxRepository repository, ApiCallLogService apiCallLogService, PayloadCodec payloadCodec) {
+        this.repository = repository;
+        this.apiCallLogService = apiCallLogService;
+        this.payloadCodec = payloadCodec;
+    }
+
+    /**
+     * Records a case.
+     *
+     * @param context The onboarding context.
+     * @param caseId  The ID of the case.
+     * @param payload The JSON request body for Orinoco.
+     * @throws JsonProcessingException If the audit row cannot be serialized.
+     */
+    @Transactional
+    public void enqueue(OnboardingContext context, String caseId, String payload) throws JsonProcessingException {
+        String accepted = payloadCodec.toJson(Map.of("caseId", caseId, "status", "queued"));
+        LocalDateTime now = LocalDateTime.now();
+        repository.save(CaseOutboxEntity.builder()
+                .caseId(caseId)
+                .transactionId(context.getTransactionId())
+                .fkn(context.getFkn())
+                .productCode(context.getProductCode())
+                .payload(payload)
+                .status(CaseOutboxEntity.Status.PENDING)
+                .nextAttemptAt(now)
+                .createdAt(now)
+                .build());
+
+        // Bypasses the write-behind queue, so the audit row commits with the outbox row
+        apiCallLogService.saveLog(apiCallLogService.createLog(context.getTransactionId(), "orinoco-case-outbox",
+                context.getFkn(), context.getProductCode(), "202 ACCEPTED", payload, accepted));
+    }
+}
@@ -0,0 +1,165 @@
+package com.example.account_service.outbox;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.config.CaseOutboxProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.util.OnboardingMetrics;
+import com.example.account_service.util.PayloadCodec;
+import com.example.account_service.util.RestClientUtilDummy;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Delivers the cases recorded by {@link CaseOutbox} to Orinoco Case Management. Each poll claims a
+ * batch of due rows, at most one per transaction, and delivers them concurrently. Failed deliveries
+ * are retried with exponential backoff; 4xx responses and rows out of attempts are marked FAILED.
+ * Several instances can dispatch at the same time: claimed rows are locked and leased, so every
+ * delivery attempt is made by one instance. Delivery is at least once; Orinoco can recognise a
+ * repeated case by its case ID.
+ */
+@Slf4j
+@Component
+public class CaseOutboxDispatcher {
+
+    static final String CASE_MANAGEMENT_URL = "https://orinoco.api/case-management";
+
+    // Batches per poll, so a long backlog does not hold the shared scheduler thread indefinitely
+    private static final int MAX_BATCHES_PER_POLL = 20;
+
+    private final CaseOutboxRepository repository;
+    private final CaseOutboxProperties properties;
+    private final RestClientUtilDummy restClientUtil;
+    private final ApiCallLogService apiCallLogService;
+    private final PayloadCodec payloadCodec;
+    private final OnboardingMetrics onboardingMetrics;
+    private final AsyncTaskExecutor executor;
+
+    @Autowired
+    public CaseOutboxDispatcher(CaseOutboxRepository repository, CaseOutboxProperties properties,
+                                RestClientUtilDummy restClientUtil, ApiCallLogService apiCallLogService,
+                                PayloadCodec payloadCodec, OnboardingMetrics onboardingMetrics,
+                                TaskExecutorFactory taskExecutorFactory) {
+        this.repository = repository;
+        this.properties = properties;
+        this.restClientUtil = restClientUtil;
+        this.apiCallLogService = apiCallLogService;
+        this.payloadCodec = payloadCodec;
+        this.onboardingMetrics = onboardingMetrics;
+        // The poller waits for each batch, so the queue never holds more than one batch
+        this.executor = taskExecutorFactory.create("case-outbox-", properties.getConcurrency(),
+                properties.getBatchSize());
+    }
+
+    @Scheduled(fixedDelayString = "${account-service.case-outbox.poll-interval:500ms}")
+    public void poll() {
+        if (!properties.isDispatcherEnabled()) {
+            return;
+        }
+        try {
+            for (int i = 0; i < MAX_BATCHES_PER_POLL; i++) {
+                if (dispatchBatch() < properties.getBatchSize()) {
+                    return;
+                }
+            }
+        } catch (Exception e) {
+            log.error("Error dispatching Orinoco cases: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "${account-service.case-outbox.purge-cron:0 50 2 * * *}")
+    public void purgeDelivered() {
+        int deleted = repository.deleteSentBefore(LocalDateTime.now().minus(properties.getRetention()));
+        log.info("Purged {} delivered Orinoco cases older than {}", deleted, properties.getRetention());
+    }
+
+    // Claims and delivers one batch; returns the number of rows claimed
+    private int dispatchBatch() throws InterruptedException {
+        LocalDateTime now = LocalDateTime.now();
+        List<CaseOutboxEntity> due = repository.claimDue(now, now.plus(properties.getLease()), properties.getBatchSize());
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        List<Future<?>> deliveries = new ArrayList<>(due.size());
+        for (CaseOutboxEntity entry : due) {
+            deliveries.add(executor.submit(() -> deliver(entry)));
+        }
+        for (Future<?> delivery : deliveries) {
+            try {
+                delivery.get();
+            } catch (ExecutionException e) {
+                // deliver() handles its own failures; the row is retried when its lease expires
+                log.error("Error delivering Orinoco case: {}", e.getCause().getMessage(), e.getCause());
+            }
+        }
+        log.debug("Dispatched {} Orinoco cases", due.size());
+        return due.size();
+    }
+
+    private void deliver(CaseOutboxEntity entry) {
+        long start = System.nanoTime();
+        String outcome = OnboardingMetrics.FAILURE;
+        try {
+            ResponseEntity<String> response = restClientUtil.makeCaseManagementCall(CASE_MANAGEMENT_URL,
+                    payloadCodec.wrap(entry.getPayload()));
+            apiCallLogService.logApiResponse(entry.getTransactionId(), "orinoco-case-management", entry.getFkn(),
+                    entry.getProductCode(), response.getStatusCode().toString(), entry.getPayload(), response.getBody());
+
+            if (response.getStatusCode().is2xxSuccessful()) {
+                repository.markSent(entry.getId(), LocalDateTime.now());
+                outcome = OnboardingMetrics.SUCCESS;
+                log.info("Successfully notified Orinoco Case Management. Case ID: {}", entry.getCaseId());
+            } else if (response.getStatusCode().is4xxClientError()) {
+                fail(entry, response.getStatusCode() + ": " + response.getBody());
+            } else {
+                retry(entry, response.getStatusCode() + ": " + response.getBody());
+            }
+        } catch (HttpClientErrorException e) {
+            fail(entry, e.getMessage());
+        } catch (Exception e) {
+            retry(entry, e.getMessage());
+        } finally {
+            onboardingMetrics.recordCaseDelivery(outcome, System.nanoTime() - start);
+        }
+    }
+
+    private void retry(CaseOutboxEntity entry, String error) {
+        if (entry.getAttempts() >= properties.getMaxAttempts()) {
+            fail(entry, error);
+            return;
+        }
+        Duration backoff = backoff(entry.getAttempts());
+        log.warn("Delivery of Orinoco case {} failed (attempt {}), retrying in {}: {}", entry.getCaseId(),
+                entry.getAttempts(), backoff, error);
+        repository.markRetry(entry.getId(), LocalDateTime.now().plus(backoff), error);
+    }
+
+    private void fail(CaseOutboxEntity entry, String error) {
+        log.error("Delivery of Orinoco case {} for transactionId {} failed after {} attempts: {}", entry.getCaseId(),
+                entry.getTransactionId(), entry.getAttempts(), error);
+        repository.markFailed(entry.getId(), error);
+    }
+
+    // initialBackoff after the first attempt, doubled after each further one, capped at maxBackoff
+    private Duration backoff(int attempts) {
+        Duration backoff = properties.getInitialBackoff();
+        for (int i = 1; i < attempts && backoff.compareTo(properties.getMaxBackoff()) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(properties.getMaxBackoff()) < 0 ? backoff : properties.getMaxBackoff();
+    }
+}
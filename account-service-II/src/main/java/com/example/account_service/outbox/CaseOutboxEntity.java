@@ -0,0 +1,75 @@
+package com.example.account_service.outbox;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Entity
+// Schema is managed by Flyway (db/migration)
+@Table(name = "orinoco_case_outbox")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CaseOutboxEntity {
+
+    // The id orders the cases of a transaction
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "case_id")
+    private String caseId;
+
+    @Column(name = "transaction_id")
+    private String transactionId;
+
+    @Column(name = "fkn")
+    private String fkn;
+
+    @Column(name = "product_code")
+    private String productCode;
+
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "payload", columnDefinition = "jsonb")
+    private String payload;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status")
+    private Status status;
+
+    @Column(name = "attempts")
+    private int attempts;
+
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
+    @Column(name = "last_error")
+    private String lastError;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    public enum Status {
+        PENDING,    // Waiting for (another) delivery attempt
+        SENT,       // Accepted by Orinoco
+        FAILED      // Rejected by Orinoco or out of attempts; needs manual follow-up
+    }
+}
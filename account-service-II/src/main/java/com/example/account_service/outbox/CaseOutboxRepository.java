@@ -0,0 +1,54 @@
+package com.example.account_service.outbox;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface CaseOutboxRepository extends JpaRepository<CaseOutboxEntity, Long> {
+
+    /**
+     * Claims due rows for delivery: counts the attempt and moves next_attempt_at to the end of the lease,
+     * so no other dispatcher picks the rows up while they are being delivered. Only the oldest pending
+     * row of a transaction is due, which keeps the cases of a transaction in order. Rows locked by a
+     * concurrent claim are skipped rather than waited for.
+     */
+    @Transactional
+    @Query(value = "UPDATE orinoco_case_outbox SET attempts = attempts + 1, next_attempt_at = :leaseUntil "
+            + "WHERE id IN (SELECT o.id FROM orinoco_case_outbox o "
+            + "WHERE o.status = 'PENDING' AND o.next_attempt_at <= :now "
+            + "AND NOT EXISTS (SELECT 1 FROM orinoco_case_outbox e WHERE e.transaction_id = o.transaction_id "
+            + "AND e.status = 'PENDING' AND e.id < o.id) "
+            + "ORDER BY o.id LIMIT :limit FOR UPDATE SKIP LOCKED) "
+            + "RETURNING *",
+            nativeQuery = true)
+    List<CaseOutboxEntity> claimDue(@Param("now") LocalDateTime now, @Param("leaseUntil") LocalDateTime leaseUntil,
+                                    @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CaseOutboxEntity o SET o.status = 'SENT', o.sentAt = :sentAt, o.lastError = NULL WHERE o.id = :id")
+    int markSent(@Param("id") Long id, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CaseOutboxEntity o SET o.nextAttemptAt = :nextAttemptAt, o.lastError = :error WHERE o.id = :id")
+    int markRetry(@Param("id") Long id, @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                  @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE CaseOutboxEntity o SET o.status = 'FAILED', o.lastError = :error WHERE o.id = :id")
+    int markFailed(@Param("id") Long id, @Param("error") String error);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM CaseOutboxEntity o WHERE o.status = 'SENT' AND o.sentAt < :cutoff")
+    int deleteSentBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,138 @@
+package com.example.account_service.services;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.example.account_service.config.AsyncOnboardingProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.dto.OnboardingResult;
+import com.example.account_service.dto.OnboardingStatus;
+import com.example.account_service.enums.FeatureType;
+import com.example.account_service.features.engine.FeatureProgressListener;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Accepts validated onboarding requests and processes them in the background, so the client
+ * connection is released as soon as the request is queued. Progress is tracked in the
+ * {@link OnboardingStatusRegistry}. Onboardings run through the {@link IdempotentOnboardingService},
+ * so a transactionId already onboarded by any endpoint is answered with its recorded result.
+ */
+@Slf4j
+@Service
+public class AsyncOnboardingService {
+
+    private final IdempotentOnboardingService idempotentOnboardingService;
+    private final OnboardingStatusRegistry statusRegistry;
+    private final AsyncTaskExecutor executor;
+    private final Semaphore permits;
+    private final Duration duplicateWait;
+
+    @Autowired
+    public AsyncOnboardingService(IdempotentOnboardingService idempotentOnboardingService,
+                                  OnboardingStatusRegistry statusRegistry,
+                                  AsyncOnboardingProperties properties,
+                                  TaskExecutorFactory taskExecutorFactory) {
+        this.idempotentOnboardingService = idempotentOnboardingService;
+        this.statusRegistry = statusRegistry;
+        this.executor = taskExecutorFactory.create("onboarding-", properties.getPoolSize(), properties.getMaxPending());
+        // Running plus queued onboardings; the executor queue can never overflow
+        this.permits = new Semaphore(properties.getPoolSize() + properties.getMaxPending());
+        this.duplicateWait = properties.getDuplicateWait();
+    }
+
+    /**
+     * Queues the onboarding. A request for a transactionId that is still being processed or already
+     * finished is not queued again.
+     *
+     * @param request        The onboarding request.
+     * @param context        The validated onboarding context.
+     * @return The status of the accepted (or earlier) onboarding.
+     * @throws RejectedExecutionException If too many onboardings are pending.
+     */
+    public OnboardingStatus submit(OnboardingRequest request, OnboardingContext context) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("Too many pending onboarding requests");
+        }
+
+        OnboardingStatus status;
+        try {
+            OnboardingStatus candidate = new OnboardingStatus(request.getTransactionId());
+            status = statusRegistry.register(candidate);
+            if (status != candidate) {
+                log.info("Onboarding for transactionId {} is already {}", request.getTransactionId(), status.getState());
+                permits.release();
+                return status;
+            }
+        } catch (IllegalStateException e) {
+            permits.release();
+            throw new RejectedExecutionException(e.getMessage(), e);
+        }
+
+        OnboardingContext tracked = context.withProgressListener(new StatusProgressListener(status));
+        try {
+            executor.execute(() -> process(request, tracked, status));
+        } catch (RejectedExecutionException e) {
+            statusRegistry.remove(status);
+            permits.release();
+            throw e;
+        }
+
+        log.info("Accepted onboarding for transactionId: {}", request.getTransactionId());
+        return status;
+    }
+
+    private void process(OnboardingRequest request, OnboardingContext context, OnboardingStatus status) {
+        try {
+            status.markInProgress();
+            long deadline = System.nanoTime() + duplicateWait.toNanos();
+            OnboardingResult result = idempotentOnboardingService.onboard(request, context);
+            // 409: a synchronous or batch request of the same transactionId is still running; wait for it a while
+            while (result.getHttpStatus() == 409) {
+                // Interrupted on shutdown; each further wait would return 409 at once
+                if (Thread.currentThread().isInterrupted() || System.nanoTime() - deadline >= 0) {
+                    log.warn("Gave up waiting for the onboarding of transactionId {} running elsewhere",
+                            request.getTransactionId());
+                    status.fail("Onboarding for transactionId " + request.getTransactionId()
+                            + " is still running elsewhere; its result is returned by POST /onboard");
+                    return;
+                }
+                log.debug("Onboarding for transactionId {} is running elsewhere, waiting for its result",
+                        request.getTransactionId());
+                result = idempotentOnboardingService.onboard(request, context);
+            }
+            status.complete(result);
+        } catch (Exception e) {
+            log.error("Error during asynchronous onboarding for transactionId: {}", request.getTransactionId(), e);
+            status.fail(e.getMessage());
+        } finally {
+            permits.release();
+        }
+    }
+
+    // Inner class to feed feature progress into the onboarding status
+    private static class StatusProgressListener implements FeatureProgressListener {
+        private final OnboardingStatus status;
+
+        StatusProgressListener(OnboardingStatus status) {
+            this.status = status;
+        }
+
+        @Override
+        public void onFeatureCompleted(FeatureType featureType) {
+            status.featureCompleted(featureType.getFeatureName());
+        }
+
+        @Override
+        public void onFeatureSkipped(FeatureType featureType) {
+            status.featureSkipped(featureType.getFeatureName());
+        }
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.account_service.services;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import com.example.account_service.audit.ApiCallLogEntity;
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.config.BatchOnboardingProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.dto.BatchOnboardingResult;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.dto.OnboardingResult;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Processes a stream of newline-delimited {@link OnboardingRequest} records. At most the configured
+ * number of records per batch run at the same time, and each result is written as soon as its record
+ * is done, so neither the requests nor the results of a batch are held in memory. Results are written
+ * in completion order and carry the line number of their record. Records run through the
+ * {@link IdempotentOnboardingService}: a transactionId that was already onboarded, by this or any other
+ * request, is answered with its recorded result and not run or audited again.
+ */
+@Slf4j
+@Service
+public class BatchOnboardingService {
+
+    private final OnboardingService onboardingService;
+    private final IdempotentOnboardingService idempotentOnboardingService;
+    private final ApiCallLogService apiCallLogService;
+    private final BatchOnboardingProperties properties;
+    private final AsyncTaskExecutor executor;
+    private final ObjectReader requestReader;
+    private final ObjectWriter resultWriter;
+
+    @Autowired
+    public BatchOnboardingService(OnboardingService onboardingService,
+                                  IdempotentOnboardingService idempotentOnboardingService,
+                                  ApiCallLogService apiCallLogService,
+                                  BatchOnboardingProperties properties,
+                                  TaskExecutorFactory taskExecutorFactory,
+                                  ObjectMapper objectMapper) {
+        this.onboardingService = onboardingService;
+        this.idempotentOnboardingService = idempotentOnboardingService;
+        this.apiCallLogService = apiCallLogService;
+        this.properties = properties;
+        this.executor = taskExecutorFactory.create("batch-onboarding-", properties.getPoolSize(),
+                properties.getQueueCapacity());
+        this.requestReader = objectMapper.readerFor(OnboardingRequest.class);
+        this.resultWriter = objectMapper.writerFor(BatchOnboardingResult.class);
+    }
+
+    /**
+     * Onboards every record of the input and writes one result line per record.
+     *
+     * @param input  The NDJSON request records.
+     * @param output The stream the NDJSON results are written to.
+     * @throws IOException If the input cannot be read or the client went away. Records already
+     *                     started are still finished and audited.
+     */
+    public void process(InputStream input, OutputStream output) throws IOException {
+        BatchRun run = new BatchRun(output);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+
+        try {
+            String line;
+            long lineNumber = 0;
+            while (!run.isAborted() && (line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                submit(run, lineNumber, line);
+            }
+            while (run.inFlight > 0) {
+                run.awaitNext();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            run.abort(new IOException("Batch onboarding interrupted", e));
+        } finally {
+            run.flushAuditLogs();
+        }
+
+        log.info("Batch onboarding finished: {} records, {} failed", run.records, run.failed);
+        if (run.isAborted()) {
+            throw run.failure;
+        }
+        run.flush();
+    }
+
+    private void submit(BatchRun run, long lineNumber, String line) throws InterruptedException {
+        OnboardingRequest request;
+        try {
+            request = requestReader.readValue(line);
+        } catch (IOException e) {
+            run.write(BatchOnboardingResult.builder()
+                    .line(lineNumber)
+                    .httpStatus(400)
+                    .message("Invalid record: " + e.getMessage())
+                    .build(), null);
+            return;
+        }
+
+        OnboardingContext context;
+        try {
+            context = onboardingService.buildContext(request);
+        } catch (IllegalArgumentException e) {
+            run.write(BatchOnboardingResult.builder()
+                    .line(lineNumber)
+                    .transactionId(request.getTransactionId())
+                    .httpStatus(400)
+                    .message(e.getMessage())
+                    .build(), null);
+            return;
+        }
+
+        // Keep at most the configured number of records of this batch running
+        while (run.inFlight >= properties.getConcurrency()) {
+            run.awaitNext();
+        }
+        run.completionService.submit(() -> {
+            // Only a record that is actually run gets an audit row; it is written with those of other records
+            AtomicReference<ApiCallLogEntity> auditLog = new AtomicReference<>();
+            OnboardingResult result = idempotentOnboardingService.onboard(request, context, (r, c) -> {
+                OnboardingResult executed = onboardingService.execute(r, c);
+                auditLog.set(onboardingService.createAuditLog(r, c, executed));
+                return executed;
+            });
+            BatchOnboardingResult batchResult = BatchOnboardingResult.builder()
+                    .line(lineNumber)
+                    .transactionId(result.getTransactionId())
+                    .httpStatus(result.getHttpStatus())
+                    .message(result.getMessage())
+                    .caseId(result.getCaseId())
+                    .build();
+            return new Completed(batchResult, auditLog.get());
+        });
+        run.inFlight++;
+    }
+
+    private record Completed(BatchOnboardingResult result, ApiCallLogEntity auditLog) {
+    }
+
+    // Inner class holding the state of one batch; only used by the thread that reads the batch
+    private class BatchRun {
+        private final CompletionService<Completed> completionService = new ExecutorCompletionService<>(executor);
+        private final List<ApiCallLogEntity> auditLogs = new ArrayList<>(properties.getAuditBatchSize());
+        private final OutputStream output;
+        private int inFlight;
+        private long records;
+        private long failed;
+        private IOException failure;
+
+        BatchRun(OutputStream output) {
+            this.output = output;
+        }
+
+        boolean isAborted() {
+            return failure != null;
+        }
+
+        void abort(IOException e) {
+            if (failure == null) {
+                failure = e;
+            }
+        }
+
+        // Waits for the next record to finish and writes its result together with any other finished ones
+        void awaitNext() throws InterruptedException {
+            Future<Completed> future = completionService.take();
+            do {
+                inFlight--;
+                handle(future);
+            } while ((future = completionService.poll()) != null);
+
+            // One flush per wake-up, so results reach the client without a flush per record
+            flush();
+        }
+
+        private void handle(Future<Completed> future) throws InterruptedException {
+            try {
+                Completed completed = future.get();
+                write(completed.result(), completed.auditLog());
+            } catch (ExecutionException e) {
+                // OnboardingService.execute reports failures as results, so this is unexpected
+                log.error("Error during batch onboarding: {}", e.getCause().getMessage(), e.getCause());
+                abort(new IOException("Batch onboarding failed", e.getCause()));
+            }
+        }
+
+        void write(BatchOnboardingResult result, ApiCallLogEntity auditLog) {
+            records++;
+            if (result.getHttpStatus() != 200) {
+                failed++;
+            }
+            if (auditLog != null) {
+                auditLogs.add(auditLog);
+                if (auditLogs.size() >= properties.getAuditBatchSize()) {
+                    flushAuditLogs();
+                }
+            }
+            if (isAborted()) {
+                return;
+            }
+            try {
+                output.write(resultWriter.writeValueAsBytes(result));
+                output.write('\n');
+            } catch (IOException e) {
+                // The client went away: stop reading, but finish and audit the records already running
+                log.warn("Error writing batch onboarding result, aborting the batch: {}", e.getMessage());
+                abort(e);
+            }
+        }
+
+        void flush() {
+            if (isAborted()) {
+                return;
+            }
+            try {
+                output.flush();
+            } catch (IOException e) {
+                log.warn("Error flushing batch onboarding results, aborting the batch: {}", e.getMessage());
+                abort(e);
+            }
+        }
+
+        void flushAuditLogs() {
+            if (auditLogs.isEmpty()) {
+                return;
+            }
+            try {
+                apiCallLogService.logApiResponses(new ArrayList<>(auditLogs));
+            } catch (Exception e) {
+                log.error("Error logging {} batch onboarding results to database: {}", auditLogs.size(), e.getMessage(), e);
+            }
+            auditLogs.clear();
+        }
+    }
+}
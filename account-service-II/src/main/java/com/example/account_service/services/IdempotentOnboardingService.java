@@ -0,0 +1,278 @@
+package com.example.account_service.services;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.account_service.audit.ApiCallLogOutcome;
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.checkpoint.OnboardingCheckpointService;
+import com.example.account_service.config.IdempotencyProperties;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.dto.OnboardingResult;
+import com.example.account_service.util.OnboardingMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Runs each transactionId at most once, so client retries neither call the upstreams again nor
+ * write more audit rows or open another Orinoco case. The synchronous, asynchronous and batch
+ * endpoints all onboard through here, so a transactionId is run once whichever endpoint it is sent to:
+ * <ul>
+ *     <li>Finished results are served from a bounded cache that expires after the configured TTL.</li>
+ *     <li>Results missing from the cache are looked up in the final "onboard-product" audit row, as far
+ *         back as the configured audit window.</li>
+ *     <li>Duplicates arriving while the onboarding runs wait for its result.</li>
+ * </ul>
+ * Failed onboardings are final as well: resubmitting them returns the recorded failure. They are
+ * retried explicitly with {@link #resume}, which skips the features checkpointed by the failed
+ * attempt. Requests without a transactionId are always executed.
+ */
+@Slf4j
+@Service
+public class IdempotentOnboardingService {
+
+    private static final String EXECUTED = "executed";
+    private static final String CACHE = "cache";
+    private static final String IN_FLIGHT = "in_flight";
+    private static final String AUDIT = "audit";
+    private static final String RESUMED = "resumed";
+    private static final String ONBOARD_PRODUCT = "onboard-product";
+    // The case ID in the final message of an onboarding that opened an Orinoco case
+    private static final Pattern CASE_ID = Pattern.compile("Case ID: (\\S+)\\. ");
+
+    private final OnboardingService onboardingService;
+    private final ApiCallLogService apiCallLogService;
+    private final OnboardingCheckpointService checkpointService;
+    private final IdempotencyProperties properties;
+    private final OnboardingMetrics onboardingMetrics;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Attempt> results;
+    private final Map<String, CompletableFuture<OnboardingResult>> inFlight = new ConcurrentHashMap<>();
+
+    @Autowired
+    public IdempotentOnboardingService(OnboardingService onboardingService, ApiCallLogService apiCallLogService,
+                                       OnboardingCheckpointService checkpointService,
+                                       IdempotencyProperties properties, OnboardingMetrics onboardingMetrics,
+                                       ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.onboardingService = onboardingService;
+        this.apiCallLogService = apiCallLogService;
+        this.checkpointService = checkpointService;
+        this.properties = properties;
+        this.onboardingMetrics = onboardingMetrics;
+        this.objectMapper = objectMapper;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxResults())
+                .expireAfterWrite(properties.getResultTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "onboarding.results");
+    }
+
+    /**
+     * Onboards like {@link OnboardingService#onboard}, unless the transactionId was already onboarded
+     * or is being onboarded.
+     *
+     * @param request        The onboarding request.
+     * @param context        The onboarding context built by {@link OnboardingService#buildContext}.
+     * @return The result of the first onboarding of the transactionId, or 409 if it is still running
+     *         after the configured wait.
+     */
+    public OnboardingResult onboard(OnboardingRequest request, OnboardingContext context) {
+        return onboard(request, context, onboardingService::onboard);
+    }
+
+    /**
+     * Like {@link #onboard(OnboardingRequest, OnboardingContext)}, but a transactionId that has to be
+     * onboarded is run by the given function, e.g. one that leaves the audit row to the caller.
+     *
+     * @param request        The onboarding request.
+     * @param context        The onboarding context built by {@link OnboardingService#buildContext}.
+     * @param onboarding     Runs the onboarding; only called if the transactionId was not onboarded yet.
+     * @return The result of the first onboarding of the transactionId, or 409 if it is still running
+     *         after the configured wait.
+     */
+    public OnboardingResult onboard(OnboardingRequest request, OnboardingContext context,
+                                    BiFunction<OnboardingRequest, OnboardingContext, OnboardingResult> onboarding) {
+        String transactionId = request.getTransactionId();
+        if (!properties.isEnabled() || transactionId == null || transactionId.isBlank()) {
+            return onboarding.apply(request, context);
+        }
+
+        Attempt cached = results.getIfPresent(transactionId);
+        if (cached != null) {
+            onboardingMetrics.recordIdempotencyLookup(CACHE);
+            return cached.result();
+        }
+
+        CompletableFuture<OnboardingResult> own = new CompletableFuture<>();
+        CompletableFuture<OnboardingResult> running = inFlight.putIfAbsent(transactionId, own);
+        if (running != null) {
+            onboardingMetrics.recordIdempotencyLookup(IN_FLIGHT);
+            return await(running, transactionId);
+        }
+
+        try {
+            OnboardingResult result = findFinished(transactionId);
+            if (result == null) {
+                result = onboarding.apply(request, context);
+                onboardingMetrics.recordIdempotencyLookup(EXECUTED);
+            }
+            // Cached before the in-flight entry goes away, so later duplicates find it
+            results.put(transactionId, new Attempt(request, result));
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(transactionId, own);
+        }
+    }
+
+    /**
+     * Finds the request of the last attempt of an onboarding.
+     *
+     * @param transactionId The transaction ID of the onboarding.
+     * @return The request of the cached result or of the final "onboard-product" audit row, or null if
+     *         there is none.
+     */
+    public OnboardingRequest findRecordedRequest(String transactionId) {
+        // The audit row of a recent attempt may not be written yet
+        Attempt cached = results.getIfPresent(transactionId);
+        if (cached != null) {
+            return cached.request();
+        }
+        String payload = apiCallLogService.findLatestRequestPayload(transactionId, ONBOARD_PRODUCT, auditSince());
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(payload, OnboardingRequest.class);
+        } catch (Exception e) {
+            log.warn("Request of transactionId {} cannot be read from the audit log: {}", transactionId, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Runs a failed onboarding again; features completed by earlier attempts are not called again.
+     * An onboarding that already completed without a case is not run again and its result is returned.
+     *
+     * @param request        The onboarding request, usually the one of {@link #findRecordedRequest}.
+     * @param context        The onboarding context built by {@link OnboardingService#buildContext}.
+     * @return The result of the resumed onboarding, or 409 if the transactionId is being onboarded.
+     */
+    public OnboardingResult resume(OnboardingRequest request, OnboardingContext context) {
+        String transactionId = request.getTransactionId();
+        CompletableFuture<OnboardingResult> own = new CompletableFuture<>();
+        if (inFlight.putIfAbsent(transactionId, own) != null) {
+            return inProgress(transactionId);
+        }
+
+        try {
+            // The cache holds the latest result before its audit row is written
+            Attempt cached = results.getIfPresent(transactionId);
+            OnboardingResult result = cached != null ? cached.result() : findInAuditLog(transactionId);
+            if (result != null && result.getHttpStatus() == 200 && result.getCaseId() == null) {
+                log.info("Onboarding for transactionId {} already completed, nothing to resume", transactionId);
+                onboardingMetrics.recordIdempotencyLookup(cached != null ? CACHE : AUDIT);
+            } else {
+                // Only a resume reads the checkpoints; first attempts have none
+                Set<String> completed = checkpointService.findCompleted(transactionId);
+                log.info("Resuming onboarding for transactionId {}; already completed: {}", transactionId, completed);
+                result = onboardingService.onboard(request, context.withCompletedFeatures(completed));
+                onboardingMetrics.recordIdempotencyLookup(RESUMED);
+            }
+            // Replaces the failure cached for the earlier attempt
+            results.put(transactionId, new Attempt(request, result));
+            own.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            own.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(transactionId, own);
+        }
+    }
+
+    // Another request may have finished it between the cache lookup and registering as in flight
+    private OnboardingResult findFinished(String transactionId) {
+        Attempt cached = results.getIfPresent(transactionId);
+        if (cached != null) {
+            onboardingMetrics.recordIdempotencyLookup(CACHE);
+            return cached.result();
+        }
+        if (!properties.isAuditFallback()) {
+            return null;
+        }
+        OnboardingResult logged = findInAuditLog(transactionId);
+        if (logged != null) {
+            log.info("Onboarding for transactionId {} already finished, answering from the audit log", transactionId);
+            onboardingMetrics.recordIdempotencyLookup(AUDIT);
+        }
+        return logged;
+    }
+
+    private OnboardingResult findInAuditLog(String transactionId) {
+        ApiCallLogOutcome latest = apiCallLogService.findLatestOutcome(transactionId, ONBOARD_PRODUCT, auditSince());
+        if (latest == null) {
+            return null;
+        }
+
+        String message = latest.responseBody();
+        try {
+            message = objectMapper.readValue(latest.responseBody(), String.class);
+        } catch (Exception e) {
+            log.debug("Response body of transactionId {} is not a JSON string: {}", transactionId, e.getMessage());
+        }
+        int httpStatus = latest.httpStatus() != null && latest.httpStatus().startsWith("2") ? 200 : 500;
+        Matcher caseId = message != null ? CASE_ID.matcher(message) : null;
+        return new OnboardingResult(transactionId, httpStatus, message,
+                caseId != null && caseId.find() ? caseId.group(1) : null);
+    }
+
+    // Bounds the lookup to the partitions of the window instead of every month ever written
+    private LocalDateTime auditSince() {
+        return LocalDateTime.now().minus(properties.getAuditWindow());
+    }
+
+    private record Attempt(OnboardingRequest request, OnboardingResult result) {
+    }
+
+    private OnboardingResult await(CompletableFuture<OnboardingResult> running, String transactionId) {
+        try {
+            return running.get(properties.getInFlightWait().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return inProgress(transactionId);
+        } catch (ExecutionException e) {
+            // The first request failed unexpectedly and was not recorded; this one reports the same failure
+            throw new IllegalStateException("Onboarding for transactionId " + transactionId + " failed", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return inProgress(transactionId);
+        }
+    }
+
+    private static OnboardingResult inProgress(String transactionId) {
+        return new OnboardingResult(transactionId, 409,
+                "Onboarding for transactionId " + transactionId + " is still in progress", null);
+    }
+}
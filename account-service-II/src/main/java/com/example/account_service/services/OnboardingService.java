@@ -0,0 +1,184 @@
+package com.example.account_service.services;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import com.example.account_service.audit.ApiCallLogEntity;
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.config.ProductCatalog;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.dto.OnboardingResult;
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.services.factory.ProductServiceFactory;
+import com.example.account_service.util.OnboardingMetrics;
+import com.example.account_service.util.PayloadCodec;
+import com.fasterxml.jackson.core.JsonProcessingException;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Validates onboarding requests and runs them through the product service of the customer type.
+ * Shared by the synchronous and asynchronous onboarding endpoints.
+ */
+@Slf4j
+@Service
+public class OnboardingService {
+
+    private final ProductServiceFactory productServiceFactory;
+    private final ProductCatalog productCatalog;
+    private final ApiCallLogService apiCallLogService;
+    private final PayloadCodec payloadCodec;
+    private final OnboardingMetrics onboardingMetrics;
+
+    @Autowired
+    public OnboardingService(ProductServiceFactory productServiceFactory,
+                             ProductCatalog productCatalog,
+                             ApiCallLogService apiCallLogService,
+                             PayloadCodec payloadCodec,
+                             OnboardingMetrics onboardingMetrics) {
+        this.productServiceFactory = productServiceFactory;
+        this.productCatalog = productCatalog;
+        this.apiCallLogService = apiCallLogService;
+        this.payloadCodec = payloadCodec;
+        this.onboardingMetrics = onboardingMetrics;
+    }
+
+    /**
+     * Validates the request and builds the onboarding context for processing.
+     *
+     * @param request The onboarding request.
+     * @return The onboarding context.
+     * @throws IllegalArgumentException If the product or customer type is invalid; the message is client facing.
+     */
+    public OnboardingContext buildContext(OnboardingRequest request) {
+        String productRequest = request.getProductCode(); // Format: BrandA-BCA
+
+        // Parse the brand and product from the request
+        int separator = productRequest == null ? -1 : productRequest.indexOf('-');
+        if (separator < 0 || separator != productRequest.lastIndexOf('-') || separator == productRequest.length() - 1) {
+            throw new IllegalArgumentException("Invalid product format. Expected format: BrandName-ProductCode");
+        }
+
+        String brandName = productRequest.substring(0, separator);
+        String productCode = productRequest.substring(separator + 1);
+
+        // Validate the brand and product against the precompiled catalog
+        if (!productCatalog.hasBrand(brandName)) {
+            throw new IllegalArgumentException("Unsupported brand: " + brandName);
+        }
+        ProductCatalog.Entry catalogEntry = productCatalog.find(brandName, productCode);
+        if (catalogEntry == null) {
+            throw new IllegalArgumentException("Unsupported product for brand: " + productCode);
+        }
+
+        // Determine customer type
+        CustomerType customerType = CustomerType.fromCode(request.getCustomerType());
+
+        // Build onboarding context
+        OnboardingContext context = OnboardingContext.builder()
+                .transactionId(request.getTransactionId())
+                .fkn(request.getFkn())
+                .brand(catalogEntry.getBrand())
+                .productCode(productCode)
+                .customerType(customerType)
+                .simulateFailure(request.getSimulateFailure())
+                .failureTarget(request.getFailureTarget())
+                .pinSet(request.isPinSet())
+                .onlineBankingOptIn(request.isOnlineBankingOptIn())
+                .catalogEntry(catalogEntry)
+                .build();
+
+        log.info("Onboarding Context: {}", context);
+        return context;
+    }
+
+    /**
+     * Runs the onboarding and logs the final response.
+     *
+     * @param request        The onboarding request.
+     * @param context        The onboarding context built by {@link #buildContext}.
+     * @return The result returned to the client.
+     */
+    public OnboardingResult onboard(OnboardingRequest request, OnboardingContext context) {
+        OnboardingResult result = execute(request, context);
+        ApiCallLogEntity auditLog = createAuditLog(request, context, result);
+        if (auditLog != null) {
+            apiCallLogService.logApiResponses(List.of(auditLog));
+        }
+        return result;
+    }
+
+    /**
+     * Runs the onboarding without logging the final response; the caller logs it with
+     * {@link #createAuditLog}, e.g. together with other rows of a batch.
+     *
+     * @param request        The onboarding request.
+     * @param context        The onboarding context built by {@link #buildContext}.
+     * @return The result returned to the client.
+     */
+    public OnboardingResult execute(OnboardingRequest request, OnboardingContext context) {
+        String transactionId = request.getTransactionId();
+        String fkn = request.getFkn();
+        String productRequest = request.getProductCode();
+        CustomerType customerType = context.getCustomerType();
+        long start = System.nanoTime();
+
+        try {
+            // Delegate to the appropriate service
+            ProductService productService = productServiceFactory.getService(customerType);
+            String caseId = productService.process(context);
+
+            // Handle response
+            String finalResponseMessage;
+            if (caseId != null) {
+                finalResponseMessage = "An issue occurred. Case ID: " + caseId +
+                                       ". The bank will contact you for further processing.";
+            } else {
+                finalResponseMessage = "Onboarding for product " + productRequest +
+                                       " Transaction Id: " + transactionId +
+                                       " linked to FKN " + fkn +
+                                       " completed successfully.";
+            }
+            onboardingMetrics.recordOnboarding(context, caseId != null ? "case_created" : "completed",
+                    System.nanoTime() - start);
+
+            return new OnboardingResult(transactionId, 200, finalResponseMessage, caseId);
+
+        } catch (Exception e) {
+            String finalResponseMessage = "Onboarding failed for product " + productRequest +
+                                          " Transaction Id: " + transactionId +
+                                          " with error: " + e.getMessage();
+
+            log.error("Error during onboarding: {}", e.getMessage(), e);
+            onboardingMetrics.recordOnboarding(context, "failed", System.nanoTime() - start);
+
+            return new OnboardingResult(transactionId, 500, finalResponseMessage, null);
+        }
+    }
+
+    /**
+     * Creates the final "onboard-product" audit row of an onboarding.
+     *
+     * @return The audit row, or null if the request could not be serialized.
+     */
+    public ApiCallLogEntity createAuditLog(OnboardingRequest request, OnboardingContext context,
+                                           OnboardingResult result) {
+        try {
+            return apiCallLogService.createLog(
+                request.getTransactionId(),
+                "onboard-product",
+                request.getFkn(),
+                context.getProductCode(),
+                result.getHttpStatus() == 200 ? "200 OK" : "500 INTERNAL_SERVER_ERROR",
+                payloadCodec.toJson(request),
+                payloadCodec.toJson(result.getMessage())
+            );
+        } catch (JsonProcessingException e) {
+            log.error("Error logging to database: {}", e.getMessage(), e);
+            return null;
+        }
+    }
+}
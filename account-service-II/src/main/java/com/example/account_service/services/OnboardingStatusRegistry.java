@@ -0,0 +1,109 @@
+package com.example.account_service.services;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.account_service.audit.ApiCallLogEntity;
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.config.AsyncOnboardingProperties;
+import com.example.account_service.dto.OnboardingStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Keeps the status of asynchronously processed onboardings, keyed by transactionId.
+ * Finished statuses are kept in memory for the configured retention; after that, or on another
+ * node, the status is reconstructed from the final "onboard-product" audit row.
+ */
+@Slf4j
+@Component
+public class OnboardingStatusRegistry {
+
+    private static final long PURGE_INTERVAL_NANOS = 60_000_000_000L;
+
+    private final AsyncOnboardingProperties properties;
+    private final ApiCallLogService apiCallLogService;
+    private final ObjectMapper objectMapper;
+    private final Map<String, OnboardingStatus> statuses = new ConcurrentHashMap<>();
+    private volatile long lastPurge = System.nanoTime();
+
+    @Autowired
+    public OnboardingStatusRegistry(AsyncOnboardingProperties properties, ApiCallLogService apiCallLogService,
+                                    ObjectMapper objectMapper) {
+        this.properties = properties;
+        this.apiCallLogService = apiCallLogService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Registers the status unless the transactionId already has one: a running onboarding is not
+     * started twice and a finished one is not run again. Failed onboardings are retried with resume.
+     *
+     * @param candidate The new status.
+     * @return The candidate if registered, otherwise the status of the earlier onboarding.
+     * @throws IllegalStateException If the registry is full.
+     */
+    public OnboardingStatus register(OnboardingStatus candidate) {
+        purgeExpired();
+        if (statuses.size() >= properties.getMaxStatuses()) {
+            throw new IllegalStateException("Too many onboarding statuses held in memory");
+        }
+        return statuses.computeIfAbsent(candidate.getTransactionId(), transactionId -> candidate);
+    }
+
+    public void remove(OnboardingStatus status) {
+        statuses.remove(status.getTransactionId(), status);
+    }
+
+    /**
+     * Finds the status of an onboarding.
+     *
+     * @param transactionId The transaction ID of the onboarding.
+     * @return The status, or null if the onboarding is unknown.
+     */
+    public OnboardingStatus find(String transactionId) {
+        OnboardingStatus status = statuses.get(transactionId);
+        return status != null ? status : findInAuditLog(transactionId);
+    }
+
+    private OnboardingStatus findInAuditLog(String transactionId) {
+        List<ApiCallLogEntity> logs = apiCallLogService.findLogs(transactionId, "onboard-product", null, null, null, null);
+        ApiCallLogEntity latest = logs.stream()
+                .max(Comparator.comparing(ApiCallLogEntity::getCreatedAt))
+                .orElse(null);
+        if (latest == null) {
+            return null;
+        }
+
+        String message = latest.getResponseBody();
+        try {
+            message = objectMapper.readValue(latest.getResponseBody(), String.class);
+        } catch (Exception e) {
+            log.debug("Response body of transactionId {} is not a JSON string: {}", transactionId, e.getMessage());
+        }
+        OnboardingStatus.State state = latest.getHttpStatus() != null && latest.getHttpStatus().startsWith("2")
+                ? OnboardingStatus.State.COMPLETED
+                : OnboardingStatus.State.FAILED;
+        return new OnboardingStatus(transactionId, state, message, latest.getCreatedAt());
+    }
+
+    private void purgeExpired() {
+        long now = System.nanoTime();
+        if (now - lastPurge < PURGE_INTERVAL_NANOS) {
+            return;
+        }
+        lastPurge = now;
+
+        LocalDateTime cutoff = LocalDateTime.now().minus(properties.getStatusRetention());
+        int before = statuses.size();
+        statuses.values().removeIf(status -> status.isTerminal() && status.getUpdatedAt().isBefore(cutoff));
+        log.debug("Purged {} expired onboarding statuses", before - statuses.size());
+    }
+}
@@ -3,13 +3,15 @@ package com.example.account_service.services;
 import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.dto.OnboardingContext;
 import com.example.account_service.dto.OrinocoCasePayload;
-import com.example.account_service.util.RestClientUtilDummy;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.account_service.outbox.CaseOutbox;
+import com.example.account_service.util.CaseIdGenerator;
+import com.example.account_service.util.EncodedPayload;
+import com.example.account_service.util.OnboardingMetrics;
+import com.example.account_service.util.PayloadCodec;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -17,60 +19,52 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class OrinocoCaseManagementService {
 
-    private final RestClientUtilDummy restClientUtil;
-    private final ApiCallLogService apiCallLogService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final CaseOutbox caseOutbox;
+    private final CaseIdGenerator caseIdGenerator;
+    private final PayloadCodec payloadCodec;
+    private final OnboardingMetrics onboardingMetrics;
 
     @Autowired
-    public OrinocoCaseManagementService(RestClientUtilDummy restClientUtil, ApiCallLogService apiCallLogService) {
-        this.restClientUtil = restClientUtil;
-        this.apiCallLogService = apiCallLogService;
+    public OrinocoCaseManagementService(CaseOutbox caseOutbox, CaseIdGenerator caseIdGenerator,
+                                        PayloadCodec payloadCodec, OnboardingMetrics onboardingMetrics) {
+        this.caseOutbox = caseOutbox;
+        this.caseIdGenerator = caseIdGenerator;
+        this.payloadCodec = payloadCodec;
+        this.onboardingMetrics = onboardingMetrics;
     }
 
     /**
-     * Notify the back office through Orinoco Case Management API.
+     * Notify the back office through Orinoco Case Management API. The case is recorded in the
+     * outbox and delivered in the background by the CaseOutboxDispatcher, so the onboarding does
+     * not wait for Orinoco.
      *
-     * @param requestContext The complete request context.
+     * @param context      The onboarding context.
      * @param errorMessage   The error message describing the failure.
-     * @return Case ID generated by the system.
+     * @return Case ID generated by the system, or ERROR-CASE if the case could not be recorded.
      */
-    public String notifyBackOffice(Map<String, Object> requestContext, String errorMessage) {
-        OrinocoCasePayload casePayload = OrinocoCasePayload.createFromContext(requestContext, errorMessage);
-        String caseId = casePayload.getCaseId();
-        String transactionId = (String) requestContext.get("transactionId");
-        String productCode = (String) requestContext.get("productCode");
-        String fkn = (String) requestContext.get("fkn");
-
-        String jsonPayload = ""; // Initialize outside try-catch
-        try {
-            String jsonString = objectMapper.writeValueAsString(casePayload); // Serialization inside try
-
-            log.info("Notifying Orinoco Case Management system with payload: {}", jsonPayload); // Log the JSON
+    public String notifyBackOffice(OnboardingContext context, String errorMessage) {
+        long start = System.nanoTime();
+        String caseId = recordCase(context, errorMessage);
+        onboardingMetrics.recordCaseNotification(context,
+                "ERROR-CASE".equals(caseId) ? OnboardingMetrics.FAILURE : OnboardingMetrics.SUCCESS,
+                System.nanoTime() - start);
+        return caseId;
+    }
 
-            ResponseEntity<String> response = restClientUtil.makeCaseManagementCall(
-                    "https://orinoco.api/case-management",
-                    Map.of("case", casePayload)
-            );
-            String responseBody = response.getBody();
-            String statusCode = response.getStatusCode().toString();
+    private String recordCase(OnboardingContext context, String errorMessage) {
+        String caseId = caseIdGenerator.nextCaseId();
+        OrinocoCasePayload casePayload = OrinocoCasePayload.createFromContext(context, caseId, errorMessage);
 
-            apiCallLogService.logApiResponse(transactionId, "orinoco-case-management", fkn,
-                    productCode, statusCode, jsonString, responseBody);
+        try {
+            // Encoded once: the same JSON is stored in the outbox, sent and stored in the audit rows
+            EncodedPayload jsonPayload = payloadCodec.encode(Map.of("case", casePayload));
 
-            if (response.getStatusCode().is2xxSuccessful()) {
-                log.info("Successfully notified Orinoco Case Management. Case ID: {}", caseId);
-                return caseId;
-            } else {
-                log.error("Failed to notify Orinoco Case Management: {}, Response: {}", response.getStatusCode(),
-                        responseBody);
-                return "ERROR-CASE"; // Or a more informative error message/code
-            }
+            caseOutbox.enqueue(context, caseId, jsonPayload.asString());
+            log.info("Recorded case for Orinoco Case Management. Case ID: {}", caseId);
+            return caseId;
         } catch (Exception ex) {
-
-           // apiCallLogService.logApiResponse(transactionId, "orinoco-case-management", fkn,
-           //         productCode, "API_ERROR", jsonPayload, ex.getMessage()); // Use the pre-serialized JSON if possible.
-
-            log.error("Error notifying Orinoco Case Management. Case ID: {}, Error: {}", caseId, ex.getMessage(), ex);
+            log.error("Error recording case for Orinoco Case Management. Case ID: {}, Error: {}", caseId,
+                    ex.getMessage(), ex);
             return "ERROR-CASE"; // Or a more informative error message/code
         }
     }
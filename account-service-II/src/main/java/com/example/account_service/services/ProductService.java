@@ -1,7 +1,7 @@
 package com.example.account_service.services;
 
-import java.util.Map;
+import com.example.account_service.dto.OnboardingContext;
 
 public interface ProductService {
-    String process(Map<String, Object> requestContext);
+    String process(OnboardingContext context);
 }
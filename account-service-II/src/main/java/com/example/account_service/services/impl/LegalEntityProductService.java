@@ -1,14 +1,14 @@
 package com.example.account_service.services.impl;
 
-import java.util.List;
-import java.util.Map;
-
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import com.example.account_service.config.ProductConfig;
+import com.example.account_service.config.ProductCatalog;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.features.builder.ExecutionPlan;
 import com.example.account_service.features.builder.FeatureOrderBuilder;
-import com.example.account_service.features.factory.ProductFeatureFactory;
+import com.example.account_service.features.engine.FeatureExecutionEngine;
 import com.example.account_service.services.OrinocoCaseManagementService;
 import com.example.account_service.services.ProductService;
 
@@ -18,76 +18,45 @@ import lombok.extern.slf4j.Slf4j;
 @Service
 public class LegalEntityProductService implements ProductService {
 
-    private final ProductFeatureFactory featureFactory;
-    private final ProductConfig productConfig;
     private final OrinocoCaseManagementService caseManagementService;
     private final FeatureOrderBuilder featureOrderBuilder;
+    private final FeatureExecutionEngine featureExecutionEngine;
 
     @Autowired
-    public LegalEntityProductService(ProductFeatureFactory featureFactory,
-                                     ProductConfig productConfig,
-                                     OrinocoCaseManagementService caseManagementService,
-                                     FeatureOrderBuilder featureOrderBuilder) {
-        this.featureFactory = featureFactory;
-        this.productConfig = productConfig;
+    public LegalEntityProductService(OrinocoCaseManagementService caseManagementService,
+                                     FeatureOrderBuilder featureOrderBuilder,
+                                     FeatureExecutionEngine featureExecutionEngine) {
         this.caseManagementService = caseManagementService;
         this.featureOrderBuilder = featureOrderBuilder;
+        this.featureExecutionEngine = featureExecutionEngine;
     }
 
     @Override
-    public String process(Map<String, Object> requestContext) {
-        String brand = (String) requestContext.get("brand");
-        String productCode = (String) requestContext.get("productCode");
+    public String process(OnboardingContext context) {
+        String brand = context.getBrand();
+        String productCode = context.getProductCode();
 
-        // Retrieve product configuration for the given brand and product
-        ProductConfig.Product product = productConfig.getBrands().get(brand).getProducts().stream()
-            .filter(p -> p.getProductCode().equalsIgnoreCase(productCode))
-            .findFirst()
-            .orElseThrow(() -> new IllegalArgumentException("Product not found for brand: " + brand));
+        // Product configuration resolved once from the catalog when the request was validated
+        ProductCatalog.Entry catalogEntry = context.getCatalogEntry();
 
         try {
             log.info("Processing Legal Entity Onboarding for brand: {}, product: {}", brand, productCode);
 
-            // Use FeatureOrderBuilder to determine the ordered features
-            List<String> executionOrder = featureOrderBuilder.buildFeatureOrder(product);
+            // Precompiled plan: features are already ordered and resolved
+            ExecutionPlan plan = featureOrderBuilder.getExecutionPlan(catalogEntry, CustomerType.LEGAL_ENTITY);
 
-            // Process each feature in the execution order
-            for (String feature : executionOrder) {
-                switch (feature) {
-                    case "AccountOpening":
-                        featureFactory.getFeature("account-opening").execute(requestContext);
-                        break;
-                    case "PINActivation":
-                        boolean pinSet = (boolean) requestContext.getOrDefault("pinSet", false);
-                        if (pinSet) {
-                            featureFactory.getFeature("activate-pin").execute(requestContext);
-                        } else {
-                            log.info("Skipping PIN Activation (PIN not set).");
-                        }
-                        break;
-                    case "OnlineBankingActivation":
-                        boolean onlineBankingRequested = (boolean) requestContext.getOrDefault("onlineBankingOptIn", false);
-                        if (onlineBankingRequested) {
-                            featureFactory.getFeature("activate-online-banking").execute(requestContext);
-                        } else {
-                            log.info("Skipping online banking activation as the customer did not request it.");
-                        }
-                        break;
-                    default:
-                        log.warn("Unknown feature: {}", feature);
-                        break;
-                }
-            }
+            // Independent features run concurrently; the first failure cancels the rest
+            featureExecutionEngine.execute(plan, context);
         } catch (Exception ex) {
             log.error("Error during processing for brand: {}, product: {}. Error: {}", brand, productCode, ex.getMessage());
-            return handleFailure(requestContext, ex.getMessage());
+            return handleFailure(context, ex.getMessage());
         }
 
         log.info("Successfully completed onboarding for Legal Entity Product: {}", productCode);
         return null;
     }
 
-    private String handleFailure(Map<String, Object> requestContext, String errorDetails) {
-        return caseManagementService.notifyBackOffice(requestContext, errorDetails);
+    private String handleFailure(OnboardingContext context, String errorDetails) {
+        return caseManagementService.notifyBackOffice(context, errorDetails);
     }
 }
\ No newline at end of file
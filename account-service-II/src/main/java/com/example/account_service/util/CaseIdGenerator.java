@@ -0,0 +1,110 @@
+package com.example.account_service.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.example.account_service.config.CaseIdProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generates case IDs that are unique across nodes and ordered by creation time, without locks.
+ * A case ID is "CASE-" followed by a 63-bit number made of
+ * <ul>
+ *     <li>41 bits: milliseconds since 2024-01-01T00:00:00Z (enough until 2093),</li>
+ *     <li>10 bits: the node ID (0-1023), which must differ between the running instances,</li>
+ *     <li>12 bits: a sequence within the millisecond (4096 IDs per millisecond and node).</li>
+ * </ul>
+ * The last (millisecond, sequence) pair handed out is kept in one AtomicLong and advanced with
+ * compare-and-set. When a millisecond runs out of sequence numbers, or the clock goes backwards,
+ * the generator continues in the following millisecond instead of waiting, and runs ahead of the
+ * clock until it catches up. The only allocation per ID is the resulting string.
+ *
+ * <p>The node ID is configured per instance (CASE_ID_NODE); startup fails without one.
+ */
+@Slf4j
+@Component
+public class CaseIdGenerator {
+
+    public static final String PREFIX = "CASE-";
+
+    // 2024-01-01T00:00:00Z
+    static final long EPOCH_MILLIS = 1_704_067_200_000L;
+
+    static final int NODE_BITS = 10;
+    static final int SEQUENCE_BITS = 12;
+    static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+
+    private final long nodeBits;
+    private final LongSupplier clock;
+
+    // (milliseconds since EPOCH_MILLIS << SEQUENCE_BITS) | sequence of the last ID
+    private final AtomicLong last = new AtomicLong();
+
+    @Autowired
+    public CaseIdGenerator(CaseIdProperties properties) {
+        this(resolveNodeId(properties), System::currentTimeMillis);
+    }
+
+    CaseIdGenerator(int nodeId, LongSupplier clock) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node ID must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeBits = (long) nodeId << SEQUENCE_BITS;
+        this.clock = clock;
+        log.info("Case IDs are generated with node ID {}", nodeId);
+    }
+
+    /**
+     * @return A new case ID, e.g. CASE-369933317852327936.
+     */
+    public String nextCaseId() {
+        return PREFIX + nextId();
+    }
+
+    /**
+     * @return A new ID; IDs of one node are strictly increasing.
+     */
+    public long nextId() {
+        long now = (clock.getAsLong() - EPOCH_MILLIS) << SEQUENCE_BITS;
+        long previous;
+        long next;
+        do {
+            previous = last.get();
+            // A new millisecond starts at sequence 0; otherwise take the next sequence, which overflows
+            // into the following millisecond
+            next = now > previous ? now : previous + 1;
+        } while (!last.compareAndSet(previous, next));
+
+        long millis = next >>> SEQUENCE_BITS;
+        return (millis << (NODE_BITS + SEQUENCE_BITS)) | nodeBits | (next & SEQUENCE_MASK);
+    }
+
+    /**
+     * @return The node ID embedded in an ID of {@link #nextId}.
+     */
+    public static int nodeIdOf(long id) {
+        return (int) ((id >>> SEQUENCE_BITS) & MAX_NODE_ID);
+    }
+
+    /**
+     * @return The creation time, in epoch milliseconds, embedded in an ID of {@link #nextId}.
+     */
+    public static long timestampOf(long id) {
+        return (id >>> (NODE_BITS + SEQUENCE_BITS)) + EPOCH_MILLIS;
+    }
+
+    // Two instances with the same node ID generate the same case IDs, so it is never guessed
+    static int resolveNodeId(CaseIdProperties properties) {
+        if (properties.getNodeId() == null) {
+            throw new IllegalStateException("account-service.case-ids.node-id (CASE_ID_NODE) must be set to a node ID "
+                    + "between 0 and " + MAX_NODE_ID + " that no other running instance uses, e.g. the StatefulSet "
+                    + "ordinal; a single local instance can use 0");
+        }
+        return properties.getNodeId();
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.account_service.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A payload serialized to JSON exactly once. The same bytes are sent as the HTTP body and, decoded
+ * once, stored as the request_payload of the audit row.
+ */
+public final class EncodedPayload {
+
+    private final Object value;
+    private final byte[] json;
+    private String text;
+
+    EncodedPayload(Object value, byte[] json) {
+        this.value = value;
+        this.json = json;
+    }
+
+    // The object the JSON was written from
+    public Object getValue() {
+        return value;
+    }
+
+    // The JSON body; must not be modified
+    public byte[] getBytes() {
+        return json;
+    }
+
+    // The JSON as a string, decoded on first use and then reused
+    public String asString() {
+        String result = text;
+        if (result == null) {
+            result = new String(json, StandardCharsets.UTF_8);
+            text = result;
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return asString();
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.account_service.util;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClientResponseException;
+
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.enums.FeatureType;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.http.Outcome;
+
+/**
+ * Timers of the onboarding, published as percentile histograms so latency percentiles can be
+ * aggregated across instances:
+ * <ul>
+ *     <li>onboarding.requests{brand,productCode,customerType,outcome}</li>
+ *     <li>onboarding.feature{feature,brand,productCode,customerType,outcome}</li>
+ *     <li>onboarding.case.notification{brand,productCode,customerType,outcome}</li>
+ *     <li>onboarding.case.delivery{outcome}</li>
+ *     <li>upstream.requests{upstream,method,status,outcome}</li>
+ *     <li>audit.write{mode,outcome}</li>
+ * </ul>
+ * and the counter onboarding.idempotency{source} of how repeated transactionIds were answered.
+ */
+@Component
+public class OnboardingMetrics {
+
+    public static final String SUCCESS = "success";
+    public static final String FAILURE = "failure";
+
+    private final Meter.MeterProvider<Timer> onboardingTimers;
+    private final Meter.MeterProvider<Timer> featureTimers;
+    private final Meter.MeterProvider<Timer> caseNotificationTimers;
+    private final Meter.MeterProvider<Timer> caseDeliveryTimers;
+    private final Meter.MeterProvider<Timer> upstreamTimers;
+    private final Meter.MeterProvider<Timer> auditWriteTimers;
+    private final Meter.MeterProvider<Counter> idempotencyCounters;
+
+    @Autowired
+    public OnboardingMetrics(MeterRegistry meterRegistry) {
+        this.onboardingTimers = Timer.builder("onboarding.requests")
+                .description("Onboardings from validated request to final result")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.featureTimers = Timer.builder("onboarding.feature")
+                .description("Execution of a single product feature, including its upstream call and audit row")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.caseNotificationTimers = Timer.builder("onboarding.case.notification")
+                .description("Recording of cases for the back office in the Orinoco case outbox")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.caseDeliveryTimers = Timer.builder("onboarding.case.delivery")
+                .description("Delivery attempts of outbox cases to Orinoco Case Management")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.upstreamTimers = Timer.builder("upstream.requests")
+                .description("Calls to the upstream APIs")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.auditWriteTimers = Timer.builder("audit.write")
+                .description("Writes of audit rows to the database, single rows or batches")
+                .publishPercentileHistogram()
+                .withRegistry(meterRegistry);
+        this.idempotencyCounters = Counter.builder("onboarding.idempotency")
+                .description("Onboarding requests by where their result came from")
+                .withRegistry(meterRegistry);
+    }
+
+    /**
+     * @param outcome completed, case_created or failed.
+     */
+    public void recordOnboarding(OnboardingContext context, String outcome, long nanos) {
+        onboardingTimers.withTags(onboardingTags(context).and("outcome", outcome))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordFeature(OnboardingContext context, FeatureType featureType, String outcome, long nanos) {
+        featureTimers.withTags(onboardingTags(context).and("feature", featureType.getFeatureName(), "outcome", outcome))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCaseNotification(OnboardingContext context, String outcome, long nanos) {
+        caseNotificationTimers.withTags(onboardingTags(context).and("outcome", outcome))
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordCaseDelivery(String outcome, long nanos) {
+        caseDeliveryTimers.withTag("outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param mode sync for writes on the request thread, async for the write-behind batches.
+     */
+    public void recordAuditWrite(String mode, String outcome, long nanos) {
+        auditWriteTimers.withTags("mode", mode, "outcome", outcome).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * @param source executed, cache, in_flight, audit or resumed.
+     */
+    public void recordIdempotencyLookup(String source) {
+        idempotencyCounters.withTag("source", source).increment();
+    }
+
+    /**
+     * Times an upstream call. Error responses thrown by a RestTemplate are recorded with their status,
+     * other exceptions with status IO_ERROR.
+     *
+     * @param url    The URL of the call; its first path segment names the upstream.
+     * @param method The HTTP method.
+     * @param call   The call.
+     * @return The response of the call.
+     */
+    public ResponseEntity<String> timeUpstreamCall(String url, String method, Supplier<ResponseEntity<String>> call) {
+        long start = System.nanoTime();
+        String status = "IO_ERROR";
+        String outcome = Outcome.UNKNOWN.name();
+        try {
+            ResponseEntity<String> response = call.get();
+            int statusCode = response.getStatusCode().value();
+            status = Integer.toString(statusCode);
+            outcome = Outcome.forStatus(statusCode).name();
+            return response;
+        } catch (RestClientResponseException e) {
+            status = Integer.toString(e.getStatusCode().value());
+            outcome = Outcome.forStatus(e.getStatusCode().value()).name();
+            throw e;
+        } finally {
+            upstreamTimers.withTags("upstream", upstreamName(url), "method", method, "status", status, "outcome", outcome)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Tags onboardingTags(OnboardingContext context) {
+        return Tags.of("brand", String.valueOf(context.getBrand()),
+                "productCode", String.valueOf(context.getProductCode()),
+                "customerType", String.valueOf(context.getCustomerType()));
+    }
+
+    // The first path segment, e.g. schufa-check; query parameters would explode the tag cardinality
+    static String upstreamName(String url) {
+        try {
+            String path = URI.create(url).getPath();
+            if (path == null || path.length() <= 1) {
+                return "none";
+            }
+            int end = path.indexOf('/', 1);
+            return end < 0 ? path.substring(1) : path.substring(1, end);
+        } catch (IllegalArgumentException e) {
+            return "invalid";
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.account_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Shared JSON serialization for upstream payloads and audit rows, based on the application's
+ * ObjectMapper. Writers are resolved once per payload type and reused.
+ */
+@Component
+public class PayloadCodec {
+
+    private final ObjectMapper objectMapper;
+    private final Map<Class<?>, ObjectWriter> writers = new ConcurrentHashMap<>();
+
+    @Autowired
+    public PayloadCodec(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Serializes the payload once to UTF-8 JSON.
+     *
+     * @param payload The payload (e.g., a feature's request map).
+     * @return The encoded payload, to be used for both the HTTP body and the audit row.
+     * @throws JsonProcessingException If the payload cannot be serialized.
+     */
+    public EncodedPayload encode(Object payload) throws JsonProcessingException {
+        if (payload == null) {
+            return new EncodedPayload(null, "null".getBytes(StandardCharsets.UTF_8));
+        }
+        return new EncodedPayload(payload, writerFor(payload.getClass()).writeValueAsBytes(payload));
+    }
+
+    /**
+     * Wraps JSON that was serialized earlier, e.g. a payload read back from the database. The
+     * result has no value it was written from.
+     */
+    public EncodedPayload wrap(String json) {
+        return new EncodedPayload(null, json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Serializes the value to a JSON string, e.g. for a response body stored in an audit row.
+     */
+    public String toJson(Object value) throws JsonProcessingException {
+        if (value == null) {
+            return "null";
+        }
+        return writerFor(value.getClass()).writeValueAsString(value);
+    }
+
+    private ObjectWriter writerFor(Class<?> type) {
+        return writers.computeIfAbsent(type, objectMapper::writerFor);
+    }
+}
@@ -1,10 +1,9 @@
 package com.example.account_service.util;
 
-import java.util.Map;
-
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestClientException;
@@ -18,16 +17,22 @@ public class RestClientUtil {
 
     private final RestTemplate restTemplate;
     private final SidecarTokenService sidecarTokenService;
+    private final OnboardingMetrics onboardingMetrics;
+    private final UpstreamGuard upstreamGuard;
 
-    public RestClientUtil(RestTemplate restTemplate, SidecarTokenService sidecarTokenService) {
+    public RestClientUtil(RestTemplate restTemplate, SidecarTokenService sidecarTokenService,
+                          OnboardingMetrics onboardingMetrics, UpstreamGuard upstreamGuard) {
         this.restTemplate = restTemplate;
         this.sidecarTokenService = sidecarTokenService;
+        this.onboardingMetrics = onboardingMetrics;
+        this.upstreamGuard = upstreamGuard;
     }
 
     /**
      * Adds `Authorization` and `X-Authorization` headers using tokens fetched from the `SidecarTokenService`.
+     * The payload is sent as already encoded, without serializing it again.
      */
-    public ResponseEntity<String> makePostCall(String url, Map<String, Object> requestPayload) {
+    public ResponseEntity<String> makePostCall(String url, EncodedPayload requestPayload) {
         log.info("Making POST request to URL: {} with payload: {}", url, requestPayload);
 
         try {
@@ -39,13 +44,14 @@ public class RestClientUtil {
             HttpHeaders headers = new HttpHeaders();
             headers.set("Authorization", "Bearer " + authnToken); // Authentication token
             headers.set("X-Authorization", "Bearer " + authzToken); // Authorization token
-            headers.set("Content-Type", "application/json");
+            headers.setContentType(MediaType.APPLICATION_JSON);
 
-            // Build the request entity
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestPayload, headers);
+            // Build the request entity from the encoded bytes
+            HttpEntity<byte[]> entity = new HttpEntity<>(requestPayload.getBytes(), headers);
 
-            // Make the POST call
-            return restTemplate.exchange(url, HttpMethod.POST, entity, String.class);
+            // Make the POST call, unless the breaker or bulkhead of the upstream rejects it
+            return upstreamGuard.call(url, () -> onboardingMetrics.timeUpstreamCall(url, "POST",
+                    () -> restTemplate.exchange(url, HttpMethod.POST, entity, String.class)));
 
         } catch (RestClientException e) {
             log.error("Error making POST call to {}: {}", url, e.getMessage(), e);
@@ -73,8 +79,9 @@ public class RestClientUtil {
             // Build the request entity
             HttpEntity<Void> entity = new HttpEntity<>(headers);
 
-            // Make the GET call
-            return restTemplate.exchange(url, HttpMethod.GET, entity, String.class);
+            // Make the GET call, unless the breaker or bulkhead of the upstream rejects it
+            return upstreamGuard.call(url, () -> onboardingMetrics.timeUpstreamCall(url, "GET",
+                    () -> restTemplate.exchange(url, HttpMethod.GET, entity, String.class)));
 
         } catch (RestClientException e) {
             log.error("Error making GET call to {}: {}", url, e.getMessage(), e);
@@ -1,10 +1,13 @@
 package com.example.account_service.util;
 
 import java.util.Map;
+import java.util.function.Supplier;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
 
 import lombok.extern.slf4j.Slf4j;
@@ -13,22 +16,57 @@ import lombok.extern.slf4j.Slf4j;
 @Component
 public class RestClientUtilDummy {
 
+    private final UpstreamSimulator upstreamSimulator;
+    private final SidecarTokenService sidecarTokenService;
+    private final OnboardingMetrics onboardingMetrics;
+    private final UpstreamGuard upstreamGuard;
 
     public RestClientUtilDummy(RestTemplate restTemplate) {
+        this(restTemplate, null, null, null, null);
     }
+
+    /**
+     * With an enabled {@link UpstreamSimulator}, calls take as long and fail as often as configured,
+     * and fetch their tokens from the sidecar like {@link RestClientUtil} does. Calls pass the
+     * {@link UpstreamGuard} like those of {@link RestClientUtil}.
+     */
+    @Autowired
+    public RestClientUtilDummy(RestTemplate restTemplate, UpstreamSimulator upstreamSimulator,
+                               SidecarTokenService sidecarTokenService, OnboardingMetrics onboardingMetrics,
+                               UpstreamGuard upstreamGuard) {
+        this.upstreamSimulator = upstreamSimulator;
+        this.sidecarTokenService = sidecarTokenService;
+        this.onboardingMetrics = onboardingMetrics;
+        this.upstreamGuard = upstreamGuard;
+    }
+
 /**
      * Simulates a POST request to an upstream API.
      * If the request payload contains 'simulateFailure' and 'failureTarget', it simulates a specific failure for a specific API.
      */
-    public ResponseEntity<String> makePostCall(String url, Map<String, Object> requestPayload) {
-        log.info("Simulating POST request to URL: {} with payload: {}", url, requestPayload);
+    public ResponseEntity<String> makePostCall(String url, EncodedPayload encodedPayload) {
+        ResponseEntity<String> requestedFailure = requestedFailure(url, encodedPayload);
+        if (requestedFailure != null) {
+            // Failures asked for by the request say nothing about the upstream, so the breaker ignores them
+            return timed(url, "POST", () -> requestedFailure, false);
+        }
+        return timed(url, "POST", () -> simulatePostCall(url, encodedPayload), true);
+    }
 
-        // Extract simulateFailure and failureTarget from the payload
-        String simulateFailure = (String) requestPayload.getOrDefault("simulateFailure", "NONE");
-        String failureTarget = (String) requestPayload.getOrDefault("failureTarget", "NONE");
+    /**
+     * The failure requested by 'simulateFailure' and 'failureTarget' in the payload, if the URL is the target.
+     *
+     * @return The simulated failure response, or null if the call is not to fail.
+     */
+    private ResponseEntity<String> requestedFailure(String url, EncodedPayload encodedPayload) {
+        // Extract simulateFailure and failureTarget from the payload the JSON was written from
+        Map<?, ?> requestPayload = encodedPayload.getValue() instanceof Map<?, ?> map ? map : Map.of();
+        String simulateFailure = valueOrNone(requestPayload, "simulateFailure");
+        String failureTarget = valueOrNone(requestPayload, "failureTarget");
 
         // Check if the current URL matches the failure target
         if (failureTarget != null && !failureTarget.equals("NONE") && url.contains(failureTarget)) {
+            log.info("Simulating POST request to URL: {} with payload: {}", url, encodedPayload);
             switch (simulateFailure) {
                 case "NETWORK_ERROR":
                     log.error("Simulating network error for API: {}", failureTarget);
@@ -44,6 +82,16 @@ public class RestClientUtilDummy {
                     return new ResponseEntity<>("{\"status\": \"error\", \"message\": \"Simulated API failure for " + failureTarget + "\"}", HttpStatus.INTERNAL_SERVER_ERROR);
             }
         }
+        return null;
+    }
+
+    private ResponseEntity<String> simulatePostCall(String url, EncodedPayload encodedPayload) {
+        log.info("Simulating POST request to URL: {} with payload: {}", url, encodedPayload);
+
+        HttpStatus simulatedError = simulateUpstream(url, "POST");
+        if (simulatedError != null) {
+            return simulatedErrorResponse(url, simulatedError);
+        }
 
         // Simulated Success Responses
 
@@ -65,16 +113,68 @@ public class RestClientUtilDummy {
         return new ResponseEntity<>("{\"status\": \"error\", \"message\": \"Unknown endpoint\"}", HttpStatus.NOT_FOUND);
     }
 
+    // Guarded and recorded like the calls of RestClientUtil, so breakers and dashboards work against the simulator too
+    private ResponseEntity<String> timed(String url, String method, Supplier<ResponseEntity<String>> call,
+                                         boolean countsForBreaker) {
+        Supplier<ResponseEntity<String>> timedCall =
+                onboardingMetrics != null ? () -> onboardingMetrics.timeUpstreamCall(url, method, call) : call;
+        if (upstreamGuard == null) {
+            return timedCall.get();
+        }
+        return countsForBreaker ? upstreamGuard.call(url, timedCall) : upstreamGuard.callUnrecorded(url, timedCall);
+    }
+
+    /**
+     * Applies the configured latency and error rates of the upstream, if the simulator is enabled.
+     *
+     * @return The simulated error status, or null to continue with the canned response.
+     */
+    private HttpStatus simulateUpstream(String url, String method) {
+        if (upstreamSimulator == null || !upstreamSimulator.isEnabled()) {
+            return null;
+        }
+
+        // Same token lookups as the real client, so the sidecar behavior is part of every call
+        sidecarTokenService.fetchAuthnToken();
+        sidecarTokenService.fetchAuthzToken();
+        try {
+            return upstreamSimulator.simulate(url);
+        } catch (ResourceAccessException e) {
+            // Reported like RestClientUtil reports I/O errors
+            log.error("Error making {} call to {}: {}", method, url, e.getMessage());
+            throw new RuntimeException("Error making " + method + " call to " + url, e);
+        }
+    }
+
+    private static ResponseEntity<String> simulatedErrorResponse(String url, HttpStatus status) {
+        log.error("Simulating {} for API: {}", status, url);
+        return new ResponseEntity<>("{\"status\": \"error\", \"message\": \"Simulated " + status.getReasonPhrase()
+                + " for API " + url + "\"}", status);
+    }
+
+    private static String valueOrNone(Map<?, ?> requestPayload, String key) {
+        return requestPayload.containsKey(key) ? (String) requestPayload.get(key) : "NONE";
+    }
+
     /**
      * Simulates a POST request to Orinoco Case Management API.
      *
      * @param url The URL to call.
-     * @param casePayload The payload containing case details.
+     * @param casePayload The encoded payload containing case details.
      * @return A ResponseEntity simulating the Orinoco API response (success or failure).
      */
-    public ResponseEntity<String> makeCaseManagementCall(String url, Object casePayload) {
+    public ResponseEntity<String> makeCaseManagementCall(String url, EncodedPayload casePayload) {
+        return timed(url, "POST", () -> simulateCaseManagementCall(url, casePayload), true);
+    }
+
+    private ResponseEntity<String> simulateCaseManagementCall(String url, EncodedPayload casePayload) {
         log.info("Simulating Orinoco Case Management POST request to URL: {} with payload: {}", url, casePayload);
 
+        HttpStatus simulatedError = simulateUpstream(url, "POST");
+        if (simulatedError != null) {
+            return simulatedErrorResponse(url, simulatedError);
+        }
+
         // Simulate success or failure based on casePayload (for testing, we can add a failure flag in the payload)
         if (url.contains("case-management")) {
             // Simulate a successful case creation response
@@ -96,8 +196,17 @@ public class RestClientUtilDummy {
      * Simulates a GET request to an upstream API.
      */
     public ResponseEntity<String> makeGetCall(String url) {
+        return timed(url, "GET", () -> simulateGetCall(url), true);
+    }
+
+    private ResponseEntity<String> simulateGetCall(String url) {
         log.info("Simulating GET request to URL: {}", url);
 
+        HttpStatus simulatedError = simulateUpstream(url, "GET");
+        if (simulatedError != null) {
+            return simulatedErrorResponse(url, simulatedError);
+        }
+
         if (url.contains("check-status")) {
             return new ResponseEntity<>("{\"status\": \"success\", \"message\": \"Status checked\"}", HttpStatus.OK);
         }
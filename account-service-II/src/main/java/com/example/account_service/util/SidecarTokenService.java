@@ -1,64 +1,238 @@
 package com.example.account_service.util;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
+import com.example.account_service.config.SidecarTokenProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Provides the JWTs for upstream calls from the sidecar container. Tokens are cached until shortly
+ * before their exp claim. A token close to expiry is refreshed in the background while callers keep
+ * using it, and concurrent callers share a single in-flight refresh per token.
+ */
 @Slf4j
 @Service
 public class SidecarTokenService {
 
     private final RestTemplate restTemplate;
+    private final SidecarTokenProperties properties;
+    private final ObjectMapper objectMapper;
+    private final AsyncTaskExecutor refreshExecutor;
+
+    private final TokenCache authnTokens;
+    private final TokenCache authzTokens;
 
-    public SidecarTokenService(RestTemplate restTemplate) {
+    @Autowired
+    public SidecarTokenService(@Qualifier("sidecarRestTemplate") RestTemplate restTemplate,
+                               SidecarTokenProperties properties,
+                               ObjectMapper objectMapper,
+                               TaskExecutorFactory taskExecutorFactory,
+                               MeterRegistry meterRegistry) {
         this.restTemplate = restTemplate;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.refreshExecutor = taskExecutorFactory.create("sidecar-token-", 2, 2);
+        this.authnTokens = new TokenCache("authn", "authentication", properties.getAuthnTokenUrl(), meterRegistry);
+        this.authzTokens = new TokenCache("authz", "authorization", properties.getAuthzTokenUrl(), meterRegistry);
     }
 
     /**
-     * Fetches the JWT R (authentication) token from the sidecar container.
+     * Returns the JWT R (authentication) token from the sidecar container.
      * This token is used for authentication in upstream API calls.
      */
     public String fetchAuthnToken() {
-        String url = "http://localhost:8082/sidecar/authn-token"; // Replace with actual sidecar endpoint
-        log.info("Fetching Authentication Token from: {}", url);
-
-        try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, null, String.class);
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                log.info("Fetched Authentication Token successfully.");
-                return response.getBody();
-            } else {
-                throw new RuntimeException("Failed to fetch authentication token. Status: " + response.getStatusCode());
-            }
-        } catch (RestClientException e) {
-            log.error("Error fetching authentication token: {}", e.getMessage(), e);
-            throw new RuntimeException("Error fetching authentication token", e);
-        }
+        return authnTokens.get();
     }
 
     /**
-     * Fetches the JWT G (authorization) token from the sidecar container.
+     * Returns the JWT G (authorization) token from the sidecar container.
      * This token is used for authorization in upstream API calls.
      */
     public String fetchAuthzToken() {
-        String url = "http://localhost:8082/sidecar/authz-token"; // Replace with actual sidecar endpoint
-        log.info("Fetching Authorization Token from: {}", url);
+        return authzTokens.get();
+    }
 
+    /**
+     * Reads the exp claim of the JWT.
+     *
+     * @return The expiry, or null if the token is not a JWT with an exp claim.
+     */
+    private Instant readExpiry(String token) {
+        String[] parts = token.split("\\.");
+        if (parts.length < 2) {
+            return null;
+        }
         try {
-            ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, null, String.class);
-            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                log.info("Fetched Authorization Token successfully.");
-                return response.getBody();
+            byte[] claims = Base64.getUrlDecoder().decode(parts[1]);
+            JsonNode exp = objectMapper.readTree(new String(claims, StandardCharsets.UTF_8)).get("exp");
+            return exp != null && exp.canConvertToLong() ? Instant.ofEpochSecond(exp.asLong()) : null;
+        } catch (Exception e) {
+            log.warn("Unable to read exp claim of sidecar token: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private record CachedToken(String value, Instant refreshAt, Instant expiresAt) {
+    }
+
+    // Inner class caching one token type; refreshes are single-flight through the shared future
+    private class TokenCache {
+        private final String name;
+        private final String description;
+        private final String url;
+        private final AtomicReference<CachedToken> current = new AtomicReference<>();
+        private final AtomicReference<CompletableFuture<CachedToken>> inFlight = new AtomicReference<>();
+        private final Counter hits;
+        private final Counter misses;
+        private final Timer refreshSuccess;
+        private final Timer refreshFailure;
+
+        TokenCache(String name, String description, String url, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.description = description;
+            this.url = url;
+            this.hits = Counter.builder("sidecar.token.requests")
+                    .description("Sidecar token lookups; the hit rate is result=hit over all lookups")
+                    .tag("token", name).tag("result", "hit")
+                    .register(meterRegistry);
+            this.misses = Counter.builder("sidecar.token.requests")
+                    .description("Sidecar token lookups; the hit rate is result=hit over all lookups")
+                    .tag("token", name).tag("result", "miss")
+                    .register(meterRegistry);
+            this.refreshSuccess = Timer.builder("sidecar.token.refresh")
+                    .description("Latency of token fetches from the sidecar")
+                    .publishPercentileHistogram()
+                    .tag("token", name).tag("outcome", "success")
+                    .register(meterRegistry);
+            this.refreshFailure = Timer.builder("sidecar.token.refresh")
+                    .description("Latency of token fetches from the sidecar")
+                    .publishPercentileHistogram()
+                    .tag("token", name).tag("outcome", "failure")
+                    .register(meterRegistry);
+        }
+
+        String get() {
+            Instant now = Instant.now();
+            CachedToken token = current.get();
+            if (token != null && now.isBefore(token.expiresAt())) {
+                hits.increment();
+                if (!now.isBefore(token.refreshAt())) {
+                    refreshInBackground();
+                }
+                return token.value();
+            }
+
+            // Expired or never fetched: wait for the refresh, joining one that is already running
+            misses.increment();
+            try {
+                return refresh(false).join().value();
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException cause) {
+                    throw cause;
+                }
+                throw e;
+            }
+        }
+
+        private void refreshInBackground() {
+            refresh(true).exceptionally(e -> {
+                // The cached token stays valid until its expiry; the next lookup retries
+                log.warn("Background refresh of {} token failed: {}", description, e.getMessage());
+                return null;
+            });
+        }
+
+        private CompletableFuture<CachedToken> refresh(boolean background) {
+            CompletableFuture<CachedToken> refresh = new CompletableFuture<>();
+            while (!inFlight.compareAndSet(null, refresh)) {
+                CompletableFuture<CachedToken> running = inFlight.get();
+                if (running != null) {
+                    return running;
+                }
+            }
+
+            Runnable fetch = () -> {
+                try {
+                    CachedToken token = fetch();
+                    current.set(token);
+                    refresh.complete(token);
+                } catch (RuntimeException e) {
+                    refresh.completeExceptionally(e);
+                } finally {
+                    inFlight.compareAndSet(refresh, null);
+                }
+            };
+            if (background) {
+                try {
+                    refreshExecutor.execute(fetch);
+                } catch (TaskRejectedException e) {
+                    // Never runs, e.g. during shutdown: release it so later lookups do not join it
+                    inFlight.compareAndSet(refresh, null);
+                    refresh.completeExceptionally(e);
+                }
             } else {
-                throw new RuntimeException("Failed to fetch authorization token. Status: " + response.getStatusCode());
+                // The caller has to wait anyway, so it fetches the token itself
+                fetch.run();
+            }
+            return refresh;
+        }
+
+        private CachedToken fetch() {
+            log.info("Fetching {} token from: {}", description, url);
+            long start = System.nanoTime();
+
+            try {
+                ResponseEntity<String> response = restTemplate.exchange(url, HttpMethod.GET, null, String.class);
+                if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                    String value = response.getBody().trim();
+                    CachedToken token = cache(value);
+                    refreshSuccess.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    log.info("Fetched {} token successfully, cached until {}.", description, token.expiresAt());
+                    return token;
+                } else {
+                    refreshFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    throw new RuntimeException("Failed to fetch " + description + " token. Status: " + response.getStatusCode());
+                }
+            } catch (RestClientException e) {
+                refreshFailure.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.error("Error fetching {} token: {}", description, e.getMessage(), e);
+                throw new RuntimeException("Error fetching " + description + " token", e);
+            }
+        }
+
+        private CachedToken cache(String value) {
+            Instant now = Instant.now();
+            Instant exp = readExpiry(value);
+            if (exp == null) {
+                log.warn("The {} token has no exp claim, caching it for {}", name, properties.getDefaultTtl());
+                exp = now.plus(properties.getDefaultTtl());
             }
-        } catch (RestClientException e) {
-            log.error("Error fetching authorization token: {}", e.getMessage(), e);
-            throw new RuntimeException("Error fetching authorization token", e);
+            Instant expiresAt = exp.minus(properties.getExpirySkew());
+            Instant refreshAt = expiresAt.minus(properties.getRefreshAhead());
+            return new CachedToken(value, refreshAt, expiresAt);
         }
     }
-}
\ No newline at end of file
+}
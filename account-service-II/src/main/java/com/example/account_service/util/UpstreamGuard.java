@@ -0,0 +1,109 @@
+package com.example.account_service.util;
+
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+
+/**
+ * Guards the upstream calls with a circuit breaker and a bulkhead per upstream, named like the
+ * upstream tag of the metrics (the first path segment of the URL, e.g. schufa-check). Thresholds
+ * come from the resilience4j.circuitbreaker and resilience4j.bulkhead configuration; the state of
+ * the breakers is served by /actuator/circuitbreakers.
+ *
+ * <p>Calls that are not permitted throw before the upstream is called, so a failing upstream is
+ * reported to the caller at once instead of after its timeout. Exceptions and 5xx responses count
+ * as failures of the breaker, except for calls made through {@link #callUnrecorded}.
+ */
+@Component
+public class UpstreamGuard {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    public UpstreamGuard(CircuitBreakerRegistry circuitBreakerRegistry, BulkheadRegistry bulkheadRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    /**
+     * Makes the call if the breaker of its upstream is closed (or lets it through as a half-open
+     * probe) and the bulkhead has room.
+     *
+     * @param url  The URL of the call; its first path segment names the upstream.
+     * @param call The call.
+     * @return The response of the call.
+     * @throws CallNotPermittedException If the breaker of the upstream is open.
+     * @throws BulkheadFullException     If the upstream already has the maximum number of calls in flight.
+     */
+    public ResponseEntity<String> call(String url, Supplier<ResponseEntity<String>> call) {
+        return call(url, call, true);
+    }
+
+    /**
+     * Like {@link #call}, but the outcome is not recorded by the breaker; its permission is given back
+     * instead. Used for failures requested by the caller itself (simulateFailure), which say nothing
+     * about the health of the upstream.
+     *
+     * @param url  The URL of the call; its first path segment names the upstream.
+     * @param call The call.
+     * @return The response of the call.
+     * @throws CallNotPermittedException If the breaker of the upstream is open.
+     * @throws BulkheadFullException     If the upstream already has the maximum number of calls in flight.
+     */
+    public ResponseEntity<String> callUnrecorded(String url, Supplier<ResponseEntity<String>> call) {
+        return call(url, call, false);
+    }
+
+    private ResponseEntity<String> call(String url, Supplier<ResponseEntity<String>> call, boolean recordOutcome) {
+        String upstream = OnboardingMetrics.upstreamName(url);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(upstream);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(upstream);
+
+        circuitBreaker.acquirePermission();
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            // Not an outcome of the upstream; give the breaker permission back
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+
+        if (!recordOutcome) {
+            try {
+                return call.get();
+            } finally {
+                circuitBreaker.releasePermission();
+                bulkhead.onComplete();
+            }
+        }
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        try {
+            ResponseEntity<String> response = call.get();
+            long duration = circuitBreaker.getCurrentTimestamp() - start;
+            if (response.getStatusCode().is5xxServerError()) {
+                circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(),
+                        new HttpServerErrorException(response.getStatusCode()));
+            } else {
+                circuitBreaker.onSuccess(duration, circuitBreaker.getTimestampUnit());
+            }
+            return response;
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, circuitBreaker.getTimestampUnit(), e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+}
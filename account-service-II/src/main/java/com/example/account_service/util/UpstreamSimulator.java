@@ -0,0 +1,111 @@
+package com.example.account_service.util;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.ResourceAccessException;
+
+import com.example.account_service.config.HttpClientProperties;
+import com.example.account_service.config.UpstreamSimulatorProperties;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Gives the simulated upstreams realistic behavior for load tests: every call waits for a latency
+ * drawn from the endpoint's log-normal distribution, and a configurable share of calls fails or
+ * times out. Calls that take longer than the client's read timeout fail like a real timeout.
+ */
+@Slf4j
+@Component
+public class UpstreamSimulator {
+
+    private static final String SIDECAR = "sidecar";
+
+    // Standard normal quantile of the 99th percentile
+    private static final double Z_99 = 2.3263478740408408;
+
+    private final UpstreamSimulatorProperties properties;
+    private final Duration upstreamTimeout;
+    private final Duration sidecarTimeout;
+
+    @Autowired
+    public UpstreamSimulator(UpstreamSimulatorProperties properties, HttpClientProperties httpClientProperties) {
+        this.properties = properties;
+        this.upstreamTimeout = httpClientProperties.getUpstream().getReadTimeout();
+        this.sidecarTimeout = httpClientProperties.getSidecar().getReadTimeout();
+        if (properties.isEnabled()) {
+            log.warn("Upstream simulator enabled for: {}", properties.getEndpoints().keySet());
+        }
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Waits like a call to the endpoint would.
+     *
+     * @param url The URL of the call; the first configured endpoint key it contains selects the behavior.
+     * @return The status to answer with instead of the normal response, or null for a normal response.
+     * @throws ResourceAccessException If the call ran into the client's read timeout.
+     */
+    public HttpStatus simulate(String url) {
+        String name = resolve(url);
+        UpstreamSimulatorProperties.Endpoint endpoint = name != null ? properties.getEndpoints().get(name)
+                : properties.getDefaults();
+        Duration timeout = SIDECAR.equals(name) ? sidecarTimeout : upstreamTimeout;
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+
+        long latencyNanos = random.nextDouble() < endpoint.getTimeoutRate()
+                ? Long.MAX_VALUE
+                : sampleLatency(endpoint, random);
+        if (latencyNanos >= timeout.toNanos()) {
+            sleep(timeout.toNanos());
+            throw new ResourceAccessException("Read timed out after " + timeout + " (simulated) for " + url);
+        }
+        sleep(latencyNanos);
+
+        if (random.nextDouble() < endpoint.getErrorRate()) {
+            return HttpStatus.valueOf(endpoint.getErrorStatus());
+        }
+        return null;
+    }
+
+    private String resolve(String url) {
+        for (Map.Entry<String, UpstreamSimulatorProperties.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            if (url.contains(entry.getKey())) {
+                return entry.getKey();
+            }
+        }
+        return null;
+    }
+
+    private static long sampleLatency(UpstreamSimulatorProperties.Endpoint endpoint, ThreadLocalRandom random) {
+        long median = endpoint.getMedian().toNanos();
+        long p99 = endpoint.getP99().toNanos();
+        if (median <= 0) {
+            return 0;
+        }
+        if (p99 <= median) {
+            return median;
+        }
+        double sigma = Math.log((double) p99 / median) / Z_99;
+        return (long) (median * Math.exp(sigma * random.nextGaussian()));
+    }
+
+    private static void sleep(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(nanos / 1_000_000, (int) (nanos % 1_000_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ResourceAccessException("Interrupted while waiting for simulated response");
+        }
+    }
+}
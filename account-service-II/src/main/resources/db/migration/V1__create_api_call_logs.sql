@@ -8,4 +8,11 @@ CREATE TABLE api_call_logs (
     request_payload JSONB,                              -- Request payload stored as JSONB
     response_body JSONB,                                -- Response body stored as JSONB
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP -- Timestamp when the record was created
-);
\ No newline at end of file
+);
+
+-- Ids are allocated by Hibernate's pooled optimizer in blocks of 50 (see ApiCallLogEntity),
+-- which is what allows JDBC batch inserts. The increment must match the entity's allocationSize.
+ALTER SEQUENCE api_call_logs_id_seq INCREMENT BY 50;
+
+-- Keyset pagination of GET /api/call-logs orders and seeks by (created_at, id)
+CREATE INDEX idx_api_call_logs_created_at_id ON api_call_logs (created_at, id);
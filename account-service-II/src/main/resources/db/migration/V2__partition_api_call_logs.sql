@@ -0,0 +1,63 @@
+-- Turns api_call_logs into a table partitioned by month of created_at.
+-- Queries with a created_at range only scan the matching partitions, and retention drops whole
+-- partitions instead of deleting rows (see ApiCallLogPartitionManager, which also creates the
+-- partitions of the coming months).
+
+ALTER TABLE api_call_logs RENAME TO api_call_logs_unpartitioned;
+ALTER INDEX IF EXISTS api_call_logs_pkey RENAME TO api_call_logs_unpartitioned_pkey;
+ALTER SEQUENCE api_call_logs_id_seq OWNED BY NONE;
+
+-- Ids are allocated by Hibernate's pooled optimizer in blocks of 50 (see ApiCallLogEntity),
+-- which is what allows JDBC batch inserts. The increment must match the entity's allocationSize.
+-- V1 sets it too, but databases baselined from ddl-auto never ran V1. SERIAL in V1 created an
+-- integer sequence, which would run out long before the BIGINT id column; widen it as well.
+ALTER SEQUENCE api_call_logs_id_seq AS BIGINT INCREMENT BY 50;
+
+CREATE TABLE api_call_logs (
+    id BIGINT NOT NULL DEFAULT nextval('api_call_logs_id_seq'),  -- Normally allocated by Hibernate in blocks of 50
+    transaction_id VARCHAR(255) NOT NULL,
+    feature_name VARCHAR(100) NOT NULL,
+    fkn VARCHAR(100) NOT NULL,
+    product_code VARCHAR(50) NOT NULL,
+    http_status VARCHAR(255) NOT NULL,
+    request_payload JSONB,
+    response_body JSONB,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, created_at)                        -- The partition key must be part of the primary key
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE api_call_logs_id_seq OWNED BY api_call_logs.id;
+
+-- Catches rows outside every monthly partition; kept empty by creating partitions ahead of time
+CREATE TABLE api_call_logs_default PARTITION OF api_call_logs DEFAULT;
+
+-- Monthly partitions from the oldest existing row up to three months ahead
+DO $$
+DECLARE
+    month_start DATE := date_trunc('month', LEAST(
+        (SELECT min(created_at) FROM api_call_logs_unpartitioned), CURRENT_TIMESTAMP));
+    last_month DATE := date_trunc('month', CURRENT_TIMESTAMP + INTERVAL '3 months');
+BEGIN
+    WHILE month_start <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF api_call_logs FOR VALUES FROM (%L) TO (%L)',
+                       'api_call_logs_y' || to_char(month_start, 'YYYY') || 'm' || to_char(month_start, 'MM'),
+                       month_start, (month_start + INTERVAL '1 month')::DATE);
+        month_start := (month_start + INTERVAL '1 month')::DATE;
+    END LOOP;
+END $$;
+
+INSERT INTO api_call_logs (id, transaction_id, feature_name, fkn, product_code, http_status,
+                           request_payload, response_body, created_at)
+SELECT id, transaction_id, feature_name, fkn, product_code, http_status,
+       request_payload, response_body, created_at
+FROM api_call_logs_unpartitioned;
+
+DROP TABLE api_call_logs_unpartitioned;
+
+-- Indexes are created on every partition. Each one leads with an equality filter of
+-- ApiCallLogSpecifications and ends with (created_at, id), the date range and sort order of the API.
+CREATE INDEX idx_api_call_logs_created_at_id ON api_call_logs (created_at, id);
+CREATE INDEX idx_api_call_logs_transaction_id ON api_call_logs (transaction_id, feature_name, created_at, id);
+CREATE INDEX idx_api_call_logs_fkn ON api_call_logs (fkn, created_at, id);
+CREATE INDEX idx_api_call_logs_feature_name ON api_call_logs (feature_name, created_at, id);
+CREATE INDEX idx_api_call_logs_product_code ON api_call_logs (product_code, feature_name, created_at, id);
@@ -0,0 +1,12 @@
+-- One row per feature a failed onboarding had completed. A resumed onboarding skips these
+-- features and runs the rest of its plan.
+CREATE TABLE onboarding_checkpoints (
+    transaction_id VARCHAR(255) NOT NULL,               -- Transaction of the onboarding
+    feature_name VARCHAR(100) NOT NULL,                 -- Completed feature, e.g., schufa-check
+    product_code VARCHAR(50) NOT NULL,                  -- Product code
+    completed_at TIMESTAMP NOT NULL,                    -- When the feature completed
+    PRIMARY KEY (transaction_id, feature_name)
+);
+
+-- Retention deletes checkpoints by age (see OnboardingCheckpointService)
+CREATE INDEX idx_onboarding_checkpoints_completed_at ON onboarding_checkpoints (completed_at);
@@ -0,0 +1,25 @@
+-- Case notifications for Orinoco Case Management, written in the same transaction as the audit row
+-- of the case and delivered in the background by CaseOutboxDispatcher. The cases of a transaction
+-- are delivered one after the other, in id order.
+CREATE TABLE orinoco_case_outbox (
+    id BIGSERIAL PRIMARY KEY,                           -- Insertion order
+    case_id VARCHAR(100) NOT NULL,                      -- Case ID returned to the client
+    transaction_id VARCHAR(255) NOT NULL,               -- Transaction of the onboarding
+    fkn VARCHAR(100) NOT NULL,                          -- Customer identifier
+    product_code VARCHAR(50) NOT NULL,                  -- Product code
+    payload JSONB NOT NULL,                             -- Request body sent to Orinoco
+    status VARCHAR(20) NOT NULL,                        -- PENDING, SENT or FAILED
+    attempts INT NOT NULL DEFAULT 0,                    -- Delivery attempts so far
+    next_attempt_at TIMESTAMP NOT NULL,                 -- Earliest next attempt; pushed out while an attempt runs
+    last_error TEXT,                                    -- Error of the last failed attempt
+    created_at TIMESTAMP NOT NULL,                      -- When the case was recorded
+    sent_at TIMESTAMP                                   -- When Orinoco accepted the case
+);
+
+-- The dispatcher polls pending rows by due time and checks for earlier pending rows of a transaction
+CREATE INDEX idx_orinoco_case_outbox_due ON orinoco_case_outbox (next_attempt_at) WHERE status = 'PENDING';
+CREATE INDEX idx_orinoco_case_outbox_pending_transaction ON orinoco_case_outbox (transaction_id, id)
+    WHERE status = 'PENDING';
+
+-- Retention deletes delivered rows by age
+CREATE INDEX idx_orinoco_case_outbox_sent_at ON orinoco_case_outbox (sent_at) WHERE status = 'SENT';
@@ -3,7 +3,7 @@ package com.example.account_service;
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
-@SpringBootTest
+@SpringBootTest(properties = "account-service.case-ids.node-id=0")
 class AccountServiceApplicationTests {
 
 	@Test
@@ -0,0 +1,260 @@
+package com.example.account_service.audit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import com.example.account_service.config.AuditProperties;
+import com.example.account_service.util.OnboardingMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class ApiCallLogWriterTest {
+
+    private final ApiCallLogRepository repository = mock(ApiCallLogRepository.class);
+    private final AuditProperties properties = new AuditProperties();
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    // Rows of every saveAll call, copied because the writer reuses its batch list
+    private final List<List<String>> batches = new CopyOnWriteArrayList<>();
+    private ApiCallLogWriter writer;
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void setUp() {
+        properties.setMode(AuditProperties.Mode.ASYNC);
+        properties.setFlushInterval(Duration.ofMillis(50));
+        properties.setSpillReplayBackoff(Duration.ofMillis(50));
+        properties.setSpillFile(directory.resolve("spill.ndjson").toString());
+        properties.setDeadLetterFile(directory.resolve("dead-letter.ndjson").toString());
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<ApiCallLogEntity> rows = invocation.getArgument(0);
+            batches.add(rows.stream().map(ApiCallLogEntity::getTransactionId).toList());
+            return rows;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (writer != null) {
+            writer.stop();
+        }
+    }
+
+    @Test
+    void rowsAreWrittenInBatchesOfTheConfiguredSize() {
+        properties.setBatchSize(3);
+        writer = startWriter();
+
+        for (int i = 1; i <= 4; i++) {
+            writer.enqueue(row("tx-" + i, "200 OK"));
+        }
+
+        // The last row is flushed alone once the flush interval has elapsed
+        awaitCondition(() -> batches.size() == 2);
+        assertThat(batches).containsExactly(List.of("tx-1", "tx-2", "tx-3"), List.of("tx-4"));
+    }
+
+    @Test
+    void fullQueueDropsOnlySuccessfulRowsWithDropSuccess() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBackpressure(AuditProperties.Backpressure.DROP_SUCCESS);
+        properties.setBlockTimeout(Duration.ofMillis(20));
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+        writer = startWriter();
+
+        writer.enqueue(row("tx-writing", "200 OK"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.enqueue(row("tx-queued", "200 OK"));
+        writer.enqueue(row("tx-dropped", "200 OK"));
+        ApiCallLogEntity failure = row("tx-failure", "500 INTERNAL_SERVER_ERROR");
+        writer.enqueue(failure);
+        release.countDown();
+
+        assertThat(writer.getDroppedRows()).isEqualTo(1);
+        // Failures are never dropped; with the queue still full the row is written by the caller
+        verify(repository).save(failure);
+    }
+
+    @Test
+    void fullQueueSpillsRowsAndReplaysThemOnceThereIsRoom() throws Exception {
+        properties.setQueueCapacity(1);
+        properties.setBackpressure(AuditProperties.Backpressure.SPILL);
+        CountDownLatch writing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            writing.countDown();
+            release.await();
+            List<ApiCallLogEntity> rows = invocation.getArgument(0);
+            batches.add(rows.stream().map(ApiCallLogEntity::getTransactionId).toList());
+            return rows;
+        });
+        writer = startWriter();
+
+        writer.enqueue(row("tx-writing", "200 OK"));
+        assertThat(writing.await(5, TimeUnit.SECONDS)).isTrue();
+        writer.enqueue(row("tx-queued", "200 OK"));
+        writer.enqueue(row("tx-spilled", "200 OK"));
+
+        assertThat(writer.getSpilledRows()).isEqualTo(1);
+        assertThat(Files.readString(spillFile())).contains("tx-spilled");
+        release.countDown();
+        awaitCondition(() -> batches.stream().mapToInt(List::size).sum() == 3);
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("tx-writing", "tx-queued", "tx-spilled");
+    }
+
+    @Test
+    void rowsSpilledWhileTheDatabaseIsDownAreReplayed() {
+        AtomicBoolean databaseDown = new AtomicBoolean(true);
+        when(repository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (databaseDown.get()) {
+                throw new CannotCreateTransactionException("Connection refused");
+            }
+            List<ApiCallLogEntity> rows = invocation.getArgument(0);
+            batches.add(rows.stream().map(ApiCallLogEntity::getTransactionId).toList());
+            return rows;
+        });
+        writer = startWriter();
+
+        writer.enqueue(row("tx-1", "200 OK"));
+        writer.enqueue(row("tx-2", "200 OK"));
+        awaitCondition(() -> writer.getSpilledRows() == 2);
+        databaseDown.set(false);
+
+        awaitCondition(() -> batches.stream().mapToInt(List::size).sum() == 2);
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("tx-1", "tx-2");
+        awaitCondition(() -> !Files.exists(spillFile()) && !Files.exists(replayFile()));
+        assertThat(writer.getDeadLetteredRows()).isZero();
+    }
+
+    @Test
+    void rowsRejectedByTheDatabaseGoToTheDeadLetterFile() throws Exception {
+        when(repository.saveAll(anyList())).thenThrow(new DataIntegrityViolationException("null value in column"));
+        List<String> saved = new CopyOnWriteArrayList<>();
+        when(repository.save(any())).thenAnswer(invocation -> {
+            ApiCallLogEntity row = invocation.getArgument(0);
+            if (row.getFeatureName() == null) {
+                throw new DataIntegrityViolationException("null value in column \"feature_name\"");
+            }
+            saved.add(row.getTransactionId());
+            return row;
+        });
+        writer = startWriter();
+
+        writer.enqueue(row("tx-1", "200 OK"));
+        ApiCallLogEntity invalid = row("tx-invalid", "200 OK");
+        invalid.setFeatureName(null);
+        writer.enqueue(invalid);
+        writer.enqueue(row("tx-3", "200 OK"));
+
+        awaitCondition(() -> saved.size() == 2 && writer.getDeadLetteredRows() == 1);
+        assertThat(saved).containsExactly("tx-1", "tx-3");
+        assertThat(Files.readString(deadLetterFile())).contains("tx-invalid").doesNotContain("tx-1");
+        // Nothing is spilled, so the rejected row is not tried again
+        assertThat(Files.exists(spillFile())).isFalse();
+        assertThat(writer.getSpilledRows()).isZero();
+    }
+
+    @Test
+    void unreadableSpilledLinesGoToTheDeadLetterFile() throws Exception {
+        Files.write(spillFile(), List.of("{not json", objectMapper.writeValueAsString(row("tx-1", "200 OK"))),
+                StandardCharsets.UTF_8);
+        writer = startWriter();
+
+        awaitCondition(() -> batches.size() == 1);
+        assertThat(batches).containsExactly(List.of("tx-1"));
+        assertThat(Files.readAllLines(deadLetterFile())).containsExactly("{not json");
+    }
+
+    @Test
+    void queuedRowsAreWrittenOnShutdown() {
+        properties.setFlushInterval(Duration.ofSeconds(1));
+        writer = startWriter();
+
+        writer.enqueue(row("tx-1", "200 OK"));
+        writer.enqueue(row("tx-2", "200 OK"));
+        writer.stop();
+
+        assertThat(batches.stream().flatMap(List::stream)).containsExactly("tx-1", "tx-2");
+        // Rows logged after shutdown are written on the calling thread
+        ApiCallLogEntity late = row("tx-late", "200 OK");
+        writer.enqueue(late);
+        verify(repository, timeout(1000)).save(late);
+    }
+
+    private ApiCallLogWriter startWriter() {
+        ApiCallLogWriter started = new ApiCallLogWriter(repository, properties, objectMapper,
+                new OnboardingMetrics(new SimpleMeterRegistry()));
+        started.start();
+        return started;
+    }
+
+    private Path spillFile() {
+        return Path.of(properties.getSpillFile());
+    }
+
+    private Path replayFile() {
+        return Path.of(properties.getSpillFile() + ".replay");
+    }
+
+    private Path deadLetterFile() {
+        return Path.of(properties.getDeadLetterFile());
+    }
+
+    private static ApiCallLogEntity row(String transactionId, String httpStatus) {
+        return ApiCallLogEntity.builder()
+                .transactionId(transactionId)
+                .featureName("schufa-check")
+                .fkn("fkn-1")
+                .productCode("BrandC-BCA")
+                .httpStatus(httpStatus)
+                .requestPayload("{}")
+                .responseBody("{}")
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime() - deadline).as("condition not met in time").isNegative();
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AssertionError(e);
+            }
+        }
+    }
+}
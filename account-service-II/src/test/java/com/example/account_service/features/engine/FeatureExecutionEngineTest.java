@@ -0,0 +1,294 @@
+package com.example.account_service.features.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.example.account_service.checkpoint.OnboardingCheckpointService;
+import com.example.account_service.config.FeatureExecutionProperties;
+import com.example.account_service.config.ProductCatalog;
+import com.example.account_service.config.ProductConfig;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.enums.CustomerType;
+import com.example.account_service.enums.FeatureType;
+import com.example.account_service.features.ProductFeature;
+import com.example.account_service.features.builder.ExecutionPlan;
+import com.example.account_service.features.builder.FeatureOrderBuilder;
+import com.example.account_service.features.factory.ProductFeatureFactory;
+import com.example.account_service.features.impl.AccountOpeningFeatureImpl;
+import com.example.account_service.features.impl.OnlineBankingActivationFeatureImpl;
+import com.example.account_service.features.impl.PinActivationFeatureImpl;
+import com.example.account_service.features.impl.SchufaCheckFeatureImpl;
+import com.example.account_service.util.OnboardingMetrics;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class FeatureExecutionEngineTest {
+
+    private static final String BRAND = "BrandT";
+    // PIN activation, then account opening; SCHUFA alongside both; online banking after account opening and SCHUFA
+    private static final String CONCURRENT = "CON";
+    // SCHUFA, then account opening
+    private static final String CHAIN = "SEQ";
+
+    private final OnboardingCheckpointService checkpointService = mock(OnboardingCheckpointService.class);
+    private final FeatureExecutionProperties executionProperties = new FeatureExecutionProperties();
+    private final TaskExecutorFactory taskExecutorFactory = new TaskExecutorFactory(new MockEnvironment());
+    // What each feature does when executed; by default it only records that it ran
+    private final Map<FeatureType, ProductFeature> behaviours = new EnumMap<>(FeatureType.class);
+    private final List<String> executed = new CopyOnWriteArrayList<>();
+    private FeatureOrderBuilder featureOrderBuilder;
+    private ProductCatalog productCatalog;
+    private FeatureExecutionEngine engine;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (FeatureType featureType : FeatureType.values()) {
+            behaviours.put(featureType, context -> executed.add(featureType.getFeatureName()));
+        }
+        productCatalog = new ProductCatalog(productConfig());
+        featureOrderBuilder = new FeatureOrderBuilder(productCatalog, new ProductFeatureFactory(
+                feature(AccountOpeningFeatureImpl.class, FeatureType.ACCOUNT_OPENING),
+                feature(PinActivationFeatureImpl.class, FeatureType.PIN_ACTIVATION),
+                feature(OnlineBankingActivationFeatureImpl.class, FeatureType.ONLINE_BANKING_ACTIVATION),
+                feature(SchufaCheckFeatureImpl.class, FeatureType.SCHUFA)));
+        engine = new FeatureExecutionEngine(executionProperties, taskExecutorFactory,
+                new OnboardingMetrics(new SimpleMeterRegistry()), checkpointService);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskExecutorFactory.shutdown();
+    }
+
+    @Test
+    void successfulPlanWritesNoCheckpoints() throws Exception {
+        engine.execute(plan(CONCURRENT), context(CONCURRENT));
+
+        assertThat(executed).containsExactlyInAnyOrder("activate-pin", "account-opening", "schufa-check",
+                "activate-online-banking");
+        verify(checkpointService, never()).record(any(), any());
+    }
+
+    @Test
+    void failedPlanCheckpointsTheFeaturesItCompleted() {
+        behaviours.put(FeatureType.ACCOUNT_OPENING, context -> {
+            throw new IllegalStateException("account opening failed");
+        });
+        OnboardingContext context = context(CHAIN);
+
+        assertThatThrownBy(() -> engine.execute(plan(CHAIN), context)).hasMessage("account opening failed");
+        verify(checkpointService).record(context, Set.of(FeatureType.SCHUFA));
+    }
+
+    @Test
+    void checkpointedFeaturesAreNotRunAgain() throws Exception {
+        OnboardingContext context = context(CONCURRENT)
+                .withCompletedFeatures(Set.of("activate-pin", "schufa-check"));
+
+        engine.execute(plan(CONCURRENT), context);
+
+        assertThat(executed).containsExactly("account-opening", "activate-online-banking");
+    }
+
+    @Test
+    void stepsStartOnlyAfterTheirDependencies() throws Exception {
+        List<String> events = new CopyOnWriteArrayList<>();
+        for (FeatureType featureType : FeatureType.values()) {
+            behaviours.put(featureType, context -> {
+                events.add("start " + featureType.getFeatureName());
+                Thread.sleep(20);
+                events.add("end " + featureType.getFeatureName());
+            });
+        }
+
+        engine.execute(plan(CONCURRENT), context(CONCURRENT));
+
+        assertThat(events.indexOf("start account-opening")).isGreaterThan(events.indexOf("end activate-pin"));
+        assertThat(events.indexOf("start activate-online-banking"))
+                .isGreaterThan(events.indexOf("end account-opening"))
+                .isGreaterThan(events.indexOf("end schufa-check"));
+    }
+
+    @Test
+    void independentStepsRunConcurrently() throws Exception {
+        CountDownLatch pinStarted = new CountDownLatch(1);
+        CountDownLatch schufaStarted = new CountDownLatch(1);
+        behaviours.put(FeatureType.PIN_ACTIVATION, context -> {
+            pinStarted.countDown();
+            assertThat(schufaStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        });
+        behaviours.put(FeatureType.SCHUFA, context -> {
+            schufaStarted.countDown();
+            assertThat(pinStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        });
+
+        engine.execute(plan(CONCURRENT), context(CONCURRENT));
+    }
+
+    @Test
+    void failureCancelsPendingStepsAndWaitsForRunningOnes() {
+        CountDownLatch pinStarted = new CountDownLatch(1);
+        AtomicBoolean pinFinished = new AtomicBoolean();
+        // Like a blocking HTTP call, PIN activation finishes despite the interrupt
+        behaviours.put(FeatureType.PIN_ACTIVATION, context -> {
+            pinStarted.countDown();
+            sleepUninterruptibly(Duration.ofMillis(300));
+            pinFinished.set(true);
+        });
+        behaviours.put(FeatureType.SCHUFA, context -> {
+            assertThat(pinStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            throw new IllegalStateException("schufa failed");
+        });
+        OnboardingContext context = context(CONCURRENT);
+
+        assertThatThrownBy(() -> engine.execute(plan(CONCURRENT), context)).hasMessage("schufa failed");
+
+        assertThat(pinFinished).isTrue();
+        assertThat(executed).isEmpty();
+        // The sibling finished before the failure was handled, so it is checkpointed with it
+        verify(checkpointService).record(context, Set.of(FeatureType.PIN_ACTIVATION));
+    }
+
+    @Test
+    void waitForCancelledStepsIsBounded() {
+        executionProperties.setCancelWait(Duration.ofMillis(100));
+        CountDownLatch pinStarted = new CountDownLatch(1);
+        behaviours.put(FeatureType.PIN_ACTIVATION, context -> {
+            pinStarted.countDown();
+            sleepUninterruptibly(Duration.ofSeconds(3));
+        });
+        behaviours.put(FeatureType.SCHUFA, context -> {
+            assertThat(pinStarted.await(5, TimeUnit.SECONDS)).isTrue();
+            throw new IllegalStateException("schufa failed");
+        });
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> engine.execute(plan(CONCURRENT), context(CONCURRENT))).hasMessage("schufa failed");
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void closedGatesSkipTheirSteps() throws Exception {
+        List<String> skipped = new CopyOnWriteArrayList<>();
+        OnboardingContext context = OnboardingContext.builder()
+                .transactionId("tx-1")
+                .brand(BRAND)
+                .productCode(CONCURRENT)
+                .customerType(CustomerType.NATURAL_PERSON)
+                .build()
+                .withProgressListener(new FeatureProgressListener() {
+                    @Override
+                    public void onFeatureCompleted(FeatureType featureType) {
+                    }
+
+                    @Override
+                    public void onFeatureSkipped(FeatureType featureType) {
+                        skipped.add(featureType.getFeatureName());
+                    }
+                });
+
+        engine.execute(plan(CONCURRENT), context);
+
+        // Dependents of a skipped step still run
+        assertThat(executed).containsExactlyInAnyOrder("account-opening", "schufa-check");
+        assertThat(skipped).containsExactlyInAnyOrder("activate-pin", "activate-online-banking");
+    }
+
+    private <T extends ProductFeature> T feature(Class<T> type, FeatureType featureType) throws Exception {
+        T feature = mock(type);
+        doAnswer(invocation -> {
+            behaviours.get(featureType).execute(invocation.getArgument(0));
+            return null;
+        }).when(feature).execute(any());
+        return feature;
+    }
+
+    private static void sleepUninterruptibly(Duration duration) {
+        long deadline = System.nanoTime() + duration.toNanos();
+        boolean interrupted = false;
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(Math.max(1, (deadline - System.nanoTime()) / 1_000_000));
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private ExecutionPlan plan(String productCode) {
+        return featureOrderBuilder.getExecutionPlan(productCatalog.find(BRAND, productCode), CustomerType.NATURAL_PERSON);
+    }
+
+    private static OnboardingContext context(String productCode) {
+        return OnboardingContext.builder()
+                .transactionId("tx-1")
+                .brand(BRAND)
+                .productCode(productCode)
+                .customerType(CustomerType.NATURAL_PERSON)
+                .pinSet(true)
+                .onlineBankingOptIn(true)
+                .build();
+    }
+
+    private static ProductConfig productConfig() {
+        ProductConfig.ProductFeatures concurrent = new ProductConfig.ProductFeatures();
+        concurrent.setPinActivation(featureConfig(1, List.of()));
+        concurrent.setAccountOpening(featureConfig(2, List.of("pinActivation")));
+        concurrent.setSchufa(featureConfig(3, List.of()));
+        ProductConfig.OnlineBankingFeature onlineBanking = new ProductConfig.OnlineBankingFeature();
+        onlineBanking.setPriority(4);
+        onlineBanking.setDependsOn(List.of("accountOpening", "schufa"));
+        onlineBanking.setSubFeatures(new ProductConfig.SubFeatures());
+        concurrent.setOnlineBankingActivation(onlineBanking);
+
+        ProductConfig.ProductFeatures chain = new ProductConfig.ProductFeatures();
+        chain.setSchufa(featureConfig(1, null));
+        chain.setAccountOpening(featureConfig(2, null));
+
+        ProductConfig.BrandConfig brand = new ProductConfig.BrandConfig();
+        brand.setProducts(List.of(product(CONCURRENT, concurrent), product(CHAIN, chain)));
+        ProductConfig config = new ProductConfig();
+        config.setBrands(Map.of(BRAND, brand));
+        return config;
+    }
+
+    private static ProductConfig.Product product(String productCode, ProductConfig.ProductFeatures features) {
+        ProductConfig.Product product = new ProductConfig.Product();
+        product.setName(productCode);
+        product.setProductCode(productCode);
+        product.setFeatures(features);
+        return product;
+    }
+
+    private static ProductConfig.FeatureConfig featureConfig(int priority, List<String> dependsOn) {
+        ProductConfig.FeatureConfig featureConfig = new ProductConfig.FeatureConfig();
+        featureConfig.setPriority(priority);
+        featureConfig.setDependsOn(dependsOn);
+        return featureConfig;
+    }
+}
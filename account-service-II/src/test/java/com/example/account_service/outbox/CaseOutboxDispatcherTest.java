@@ -0,0 +1,204 @@
+package com.example.account_service.outbox;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.config.CaseOutboxProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.util.EncodedPayload;
+import com.example.account_service.util.OnboardingMetrics;
+import com.example.account_service.util.PayloadCodec;
+import com.example.account_service.util.RestClientUtilDummy;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The repository mock keeps its rows in memory and claims them like the claimDue query: pending, due,
+ * and only the oldest pending row of each transaction. Retries are due again at once, so every poll
+ * makes the next attempt; the requested backoff is recorded instead.
+ */
+class CaseOutboxDispatcherTest {
+
+    private final CaseOutboxRepository repository = mock(CaseOutboxRepository.class);
+    private final RestClientUtilDummy restClientUtil = mock(RestClientUtilDummy.class);
+    private final CaseOutboxProperties properties = new CaseOutboxProperties();
+    private final TaskExecutorFactory taskExecutorFactory = new TaskExecutorFactory(new MockEnvironment());
+
+    private final List<CaseOutboxEntity> rows = new ArrayList<>();
+    private final Map<String, List<HttpStatus>> responses = new HashMap<>();
+    private final List<String> deliveries = Collections.synchronizedList(new ArrayList<>());
+    private final List<Duration> backoffs = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeEach
+    void setUp() {
+        when(repository.claimDue(any(), any(), anyInt())).thenAnswer(invocation ->
+                claimDue(invocation.getArgument(0), invocation.getArgument(1), invocation.getArgument(2)));
+        when(repository.markSent(anyLong(), any())).thenAnswer(invocation ->
+                update(invocation.getArgument(0), CaseOutboxEntity.Status.SENT));
+        when(repository.markFailed(anyLong(), anyString())).thenAnswer(invocation ->
+                update(invocation.getArgument(0), CaseOutboxEntity.Status.FAILED));
+        when(repository.markRetry(anyLong(), any(), anyString())).thenAnswer(invocation -> {
+            LocalDateTime nextAttemptAt = invocation.getArgument(1);
+            backoffs.add(Duration.ofSeconds(Math.round(
+                    Duration.between(LocalDateTime.now(), nextAttemptAt).toMillis() / 1000.0)));
+            return update(invocation.getArgument(0), CaseOutboxEntity.Status.PENDING);
+        });
+        when(restClientUtil.makeCaseManagementCall(eq(CaseOutboxDispatcher.CASE_MANAGEMENT_URL), any()))
+                .thenAnswer(invocation -> {
+                    String caseId = ((EncodedPayload) invocation.getArgument(1)).asString();
+                    deliveries.add(caseId);
+                    List<HttpStatus> scripted = responses.getOrDefault(caseId, List.of());
+                    HttpStatus status = scripted.isEmpty() ? HttpStatus.OK : scripted.remove(0);
+                    return ResponseEntity.status(status).body("{}");
+                });
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskExecutorFactory.shutdown();
+    }
+
+    @Test
+    void casesOfATransactionAreDeliveredInOrder() {
+        addCase("A1", "tx-a");
+        addCase("A2", "tx-a");
+        addCase("B1", "tx-b");
+        addCase("A3", "tx-a");
+        addCase("B2", "tx-b");
+        respond("A1", HttpStatus.SERVICE_UNAVAILABLE);
+        CaseOutboxDispatcher dispatcher = dispatcher();
+
+        dispatcher.poll();
+        assertThat(deliveries).containsExactlyInAnyOrder("A1", "B1");
+
+        pollUntilDone(dispatcher);
+
+        // A2 waits for the retry of A1, although it was due all along
+        assertThat(deliveries.stream().filter(caseId -> caseId.startsWith("A")))
+                .containsExactly("A1", "A1", "A2", "A3");
+        assertThat(deliveries.stream().filter(caseId -> caseId.startsWith("B")))
+                .containsExactly("B1", "B2");
+        assertThat(rows).allMatch(row -> row.getStatus() == CaseOutboxEntity.Status.SENT);
+    }
+
+    @Test
+    void failedDeliveriesBackOffExponentiallyUntilOutOfAttempts() {
+        properties.setMaxAttempts(5);
+        properties.setInitialBackoff(Duration.ofSeconds(1));
+        properties.setMaxBackoff(Duration.ofSeconds(5));
+        addCase("A1", "tx-a");
+        respond("A1", HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.BAD_GATEWAY,
+                HttpStatus.SERVICE_UNAVAILABLE, HttpStatus.SERVICE_UNAVAILABLE);
+        CaseOutboxDispatcher dispatcher = dispatcher();
+
+        pollUntilDone(dispatcher);
+
+        assertThat(deliveries).hasSize(5);
+        assertThat(backoffs).containsExactly(Duration.ofSeconds(1), Duration.ofSeconds(2), Duration.ofSeconds(4),
+                Duration.ofSeconds(5));
+        assertThat(rows.get(0).getStatus()).isEqualTo(CaseOutboxEntity.Status.FAILED);
+        assertThat(rows.get(0).getAttempts()).isEqualTo(5);
+    }
+
+    @Test
+    void rejectedCaseIsFailedAtOnceAndReleasesTheNextOne() {
+        addCase("A1", "tx-a");
+        addCase("A2", "tx-a");
+        respond("A1", HttpStatus.BAD_REQUEST);
+        CaseOutboxDispatcher dispatcher = dispatcher();
+
+        pollUntilDone(dispatcher);
+
+        assertThat(deliveries).containsExactly("A1", "A2");
+        assertThat(rows.get(0).getStatus()).isEqualTo(CaseOutboxEntity.Status.FAILED);
+        assertThat(rows.get(1).getStatus()).isEqualTo(CaseOutboxEntity.Status.SENT);
+        verify(repository, never()).markRetry(anyLong(), any(), anyString());
+    }
+
+    private CaseOutboxDispatcher dispatcher() {
+        return new CaseOutboxDispatcher(repository, properties, restClientUtil, mock(ApiCallLogService.class),
+                new PayloadCodec(new ObjectMapper()), new OnboardingMetrics(new SimpleMeterRegistry()),
+                taskExecutorFactory);
+    }
+
+    private void pollUntilDone(CaseOutboxDispatcher dispatcher) {
+        for (int i = 0; i < 20 && rows.stream().anyMatch(row -> row.getStatus() == CaseOutboxEntity.Status.PENDING); i++) {
+            dispatcher.poll();
+        }
+    }
+
+    // The payload is the case ID, so the client mock can tell the deliveries apart
+    private void addCase(String caseId, String transactionId) {
+        rows.add(CaseOutboxEntity.builder()
+                .id((long) rows.size() + 1)
+                .caseId(caseId)
+                .transactionId(transactionId)
+                .fkn("FKN-1")
+                .productCode("BCA")
+                .payload(caseId)
+                .status(CaseOutboxEntity.Status.PENDING)
+                .nextAttemptAt(LocalDateTime.now().minusSeconds(1))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    private void respond(String caseId, HttpStatus... statuses) {
+        responses.put(caseId, new ArrayList<>(List.of(statuses)));
+    }
+
+    private synchronized List<CaseOutboxEntity> claimDue(LocalDateTime now, LocalDateTime leaseUntil, int limit) {
+        List<CaseOutboxEntity> claimed = rows.stream()
+                .filter(row -> row.getStatus() == CaseOutboxEntity.Status.PENDING && !row.getNextAttemptAt().isAfter(now))
+                .filter(row -> rows.stream().noneMatch(earlier -> earlier.getStatus() == CaseOutboxEntity.Status.PENDING
+                        && earlier.getTransactionId().equals(row.getTransactionId()) && earlier.getId() < row.getId()))
+                .sorted(Comparator.comparing(CaseOutboxEntity::getId))
+                .limit(limit)
+                .toList();
+        for (CaseOutboxEntity row : claimed) {
+            row.setAttempts(row.getAttempts() + 1);
+            row.setNextAttemptAt(leaseUntil);
+        }
+        // The dispatcher gets copies, like rows read from the database
+        return claimed.stream().map(CaseOutboxDispatcherTest::copy).toList();
+    }
+
+    private static CaseOutboxEntity copy(CaseOutboxEntity row) {
+        return new CaseOutboxEntity(row.getId(), row.getCaseId(), row.getTransactionId(), row.getFkn(),
+                row.getProductCode(), row.getPayload(), row.getStatus(), row.getAttempts(), row.getNextAttemptAt(),
+                row.getLastError(), row.getCreatedAt(), row.getSentAt());
+    }
+
+    private synchronized int update(Long id, CaseOutboxEntity.Status status) {
+        CaseOutboxEntity row = rows.get(id.intValue() - 1);
+        row.setStatus(status);
+        // A retried row is due again at once
+        row.setNextAttemptAt(LocalDateTime.now().minusSeconds(1));
+        return 1;
+    }
+}
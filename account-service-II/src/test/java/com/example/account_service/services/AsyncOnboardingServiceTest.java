@@ -0,0 +1,103 @@
+package com.example.account_service.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.config.AsyncOnboardingProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.dto.OnboardingResult;
+import com.example.account_service.dto.OnboardingStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+class AsyncOnboardingServiceTest {
+
+    private static final String TRANSACTION_ID = "tx-1";
+
+    private final IdempotentOnboardingService idempotentOnboardingService = mock(IdempotentOnboardingService.class);
+    private final AsyncOnboardingProperties properties = new AsyncOnboardingProperties();
+    private final TaskExecutorFactory taskExecutorFactory = new TaskExecutorFactory(new MockEnvironment());
+    private final OnboardingRequest request = new OnboardingRequest();
+    private final OnboardingContext context = OnboardingContext.builder().transactionId(TRANSACTION_ID).build();
+    private final OnboardingResult inProgress = new OnboardingResult(TRANSACTION_ID, 409, "still in progress", null);
+
+    @AfterEach
+    void tearDown() {
+        taskExecutorFactory.shutdown();
+    }
+
+    @Test
+    void duplicateRunningElsewhereFailsAfterTheConfiguredWait() throws Exception {
+        properties.setDuplicateWait(Duration.ofMillis(100));
+        // Like IdempotentOnboardingService, which answers 409 after its in-flight wait
+        when(idempotentOnboardingService.onboard(any(), any())).thenAnswer(invocation -> {
+            Thread.sleep(20);
+            return inProgress;
+        });
+        AsyncOnboardingService service = service();
+
+        OnboardingStatus status = service.submit(request(), context);
+
+        awaitTerminal(status);
+        assertThat(status.getState()).isEqualTo(OnboardingStatus.State.FAILED);
+        assertThat(status.getMessage()).contains("still running elsewhere");
+        verify(idempotentOnboardingService, atMost(10)).onboard(any(), any());
+    }
+
+    @Test
+    void interruptedWaitForDuplicateEndsTheWorker() throws Exception {
+        properties.setDuplicateWait(Duration.ofHours(1));
+        CountDownLatch waiting = new CountDownLatch(1);
+        // An interrupted wait returns 409 at once, with the interrupt flag set again
+        when(idempotentOnboardingService.onboard(any(), any())).thenAnswer(invocation -> {
+            waiting.countDown();
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return inProgress;
+        });
+        AsyncOnboardingService service = service();
+
+        OnboardingStatus status = service.submit(request(), context);
+        assertThat(waiting.await(5, TimeUnit.SECONDS)).isTrue();
+        taskExecutorFactory.shutdown();
+
+        awaitTerminal(status);
+        assertThat(status.getState()).isEqualTo(OnboardingStatus.State.FAILED);
+        verify(idempotentOnboardingService, atMost(1)).onboard(any(), any());
+    }
+
+    private AsyncOnboardingService service() {
+        OnboardingStatusRegistry registry = new OnboardingStatusRegistry(properties, mock(ApiCallLogService.class),
+                new ObjectMapper());
+        return new AsyncOnboardingService(idempotentOnboardingService, registry, properties, taskExecutorFactory);
+    }
+
+    private OnboardingRequest request() {
+        request.setTransactionId(TRANSACTION_ID);
+        return request;
+    }
+
+    private static void awaitTerminal(OnboardingStatus status) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!status.isTerminal() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.account_service.services;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.account_service.audit.ApiCallLogOutcome;
+import com.example.account_service.audit.ApiCallLogService;
+import com.example.account_service.checkpoint.OnboardingCheckpointService;
+import com.example.account_service.config.IdempotencyProperties;
+import com.example.account_service.dto.OnboardingContext;
+import com.example.account_service.dto.OnboardingRequest;
+import com.example.account_service.dto.OnboardingResult;
+import com.example.account_service.util.OnboardingMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class IdempotentOnboardingServiceTest {
+
+    private static final String TRANSACTION_ID = "tx-1";
+
+    private final OnboardingService onboardingService = mock(OnboardingService.class);
+    private final ApiCallLogService apiCallLogService = mock(ApiCallLogService.class);
+    private final OnboardingCheckpointService checkpointService = mock(OnboardingCheckpointService.class);
+    private final IdempotencyProperties properties = new IdempotencyProperties();
+    private final OnboardingRequest request = new OnboardingRequest();
+    private final OnboardingContext context = OnboardingContext.builder().transactionId(TRANSACTION_ID).build();
+    private final OnboardingResult success = new OnboardingResult(TRANSACTION_ID, 200, "Onboarding successful", null);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @BeforeEach
+    void setUp() {
+        request.setTransactionId(TRANSACTION_ID);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void duplicateWaitsForTheRunningOnboarding() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(onboardingService.onboard(request, context)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return success;
+        });
+        IdempotentOnboardingService service = service();
+
+        Future<OnboardingResult> first = executor.submit(() -> service.onboard(request, context));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        Future<OnboardingResult> duplicate = executor.submit(() -> service.onboard(request, context));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(success);
+        assertThat(duplicate.get(5, TimeUnit.SECONDS)).isSameAs(success);
+        verify(onboardingService, times(1)).onboard(request, context);
+    }
+
+    @Test
+    void duplicateGets409WhenTheRunningOnboardingOutlastsTheWait() throws Exception {
+        properties.setInFlightWait(Duration.ofMillis(50));
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(onboardingService.onboard(request, context)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return success;
+        });
+        IdempotentOnboardingService service = service();
+
+        Future<OnboardingResult> first = executor.submit(() -> service.onboard(request, context));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+        OnboardingResult duplicate = service.onboard(request, context);
+        release.countDown();
+
+        assertThat(duplicate.getHttpStatus()).isEqualTo(409);
+        assertThat(duplicate.getTransactionId()).isEqualTo(TRANSACTION_ID);
+        assertThat(first.get(5, TimeUnit.SECONDS)).isSameAs(success);
+        verify(onboardingService, times(1)).onboard(request, context);
+    }
+
+    @Test
+    void finishedOnboardingIsAnsweredFromTheCache() {
+        when(onboardingService.onboard(request, context)).thenReturn(success);
+        IdempotentOnboardingService service = service();
+
+        service.onboard(request, context);
+        OnboardingResult repeated = service.onboard(request, context);
+
+        assertThat(repeated).isSameAs(success);
+        verify(onboardingService, times(1)).onboard(request, context);
+    }
+
+    @Test
+    void onboardingFinishedEarlierIsAnsweredFromTheAuditLog() {
+        ApiCallLogOutcome auditLog = new ApiCallLogOutcome("200 OK",
+                "\"An issue occurred. Case ID: CASE-42. The bank will contact you for further processing.\"",
+                LocalDateTime.now());
+        when(apiCallLogService.findLatestOutcome(eq(TRANSACTION_ID), eq("onboard-product"), any()))
+                .thenReturn(auditLog);
+        IdempotentOnboardingService service = service();
+
+        OnboardingResult result = service.onboard(request, context);
+
+        assertThat(result.getHttpStatus()).isEqualTo(200);
+        assertThat(result.getCaseId()).isEqualTo("CASE-42");
+        verify(onboardingService, never()).onboard(any(), any());
+        // Only the audit window is searched
+        verify(apiCallLogService).findLatestOutcome(eq(TRANSACTION_ID), eq("onboard-product"),
+                argThat(since -> since.isAfter(LocalDateTime.now().minusDays(31))));
+    }
+
+    @Test
+    void givenOnboardingRunsOnlyForNewTransactionIds() {
+        IdempotentOnboardingService service = service();
+        int[] runs = new int[1];
+
+        service.onboard(request, context, (r, c) -> {
+            runs[0]++;
+            return success;
+        });
+        OnboardingResult repeated = service.onboard(request, context, (r, c) -> {
+            runs[0]++;
+            return success;
+        });
+
+        assertThat(repeated).isSameAs(success);
+        assertThat(runs[0]).isEqualTo(1);
+    }
+
+    private IdempotentOnboardingService service() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        return new IdempotentOnboardingService(onboardingService, apiCallLogService, checkpointService, properties,
+                new OnboardingMetrics(meterRegistry), new ObjectMapper(), meterRegistry);
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.account_service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.account_service.config.CaseIdProperties;
+
+class CaseIdGeneratorTest {
+
+    private static final long NOW = 1_760_000_000_000L;
+
+    @Test
+    void idsAreUniqueAndIncreasingAcrossThreads() throws Exception {
+        int threads = 16;
+        int idsPerThread = 50_000;
+        CaseIdGenerator generator = new CaseIdGenerator(7, System::currentTimeMillis);
+        CountDownLatch start = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<long[]>> results = IntStream.range(0, threads)
+                    .mapToObj(i -> executor.submit(() -> {
+                        start.await();
+                        long[] ids = new long[idsPerThread];
+                        for (int j = 0; j < idsPerThread; j++) {
+                            ids[j] = generator.nextId();
+                        }
+                        return ids;
+                    }))
+                    .toList();
+            start.countDown();
+
+            Set<Long> unique = new HashSet<>(threads * idsPerThread);
+            for (Future<long[]> result : results) {
+                long[] ids = result.get();
+                for (int j = 0; j < ids.length; j++) {
+                    if (j > 0) {
+                        assertThat(ids[j]).isGreaterThan(ids[j - 1]);
+                    }
+                    unique.add(ids[j]);
+                }
+            }
+            assertThat(unique).hasSize(threads * idsPerThread);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void nodesNeverGenerateTheSameId() {
+        CaseIdGenerator first = new CaseIdGenerator(1, () -> NOW);
+        CaseIdGenerator second = new CaseIdGenerator(2, () -> NOW);
+
+        Set<String> caseIds = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(caseIds.add(first.nextCaseId())).isTrue();
+            assertThat(caseIds.add(second.nextCaseId())).isTrue();
+        }
+    }
+
+    @Test
+    void exhaustedMillisecondContinuesInTheNextOne() {
+        CaseIdGenerator generator = new CaseIdGenerator(3, () -> NOW);
+
+        long previous = generator.nextId();
+        for (int i = 1; i <= CaseIdGenerator.SEQUENCE_MASK; i++) {
+            long id = generator.nextId();
+            assertThat(id).isGreaterThan(previous);
+            assertThat(CaseIdGenerator.timestampOf(id)).isEqualTo(NOW);
+            previous = id;
+        }
+
+        long overflow = generator.nextId();
+        assertThat(overflow).isGreaterThan(previous);
+        assertThat(CaseIdGenerator.timestampOf(overflow)).isEqualTo(NOW + 1);
+    }
+
+    @Test
+    void clockGoingBackwardsKeepsIdsIncreasing() {
+        AtomicLong clock = new AtomicLong(NOW);
+        CaseIdGenerator generator = new CaseIdGenerator(4, clock::get);
+
+        long before = generator.nextId();
+        clock.set(NOW - 1_000);
+        long after = generator.nextId();
+
+        assertThat(after).isGreaterThan(before);
+        assertThat(CaseIdGenerator.timestampOf(after)).isEqualTo(NOW);
+    }
+
+    @Test
+    void idEmbedsNodeIdAndTimestamp() {
+        CaseIdGenerator generator = new CaseIdGenerator(CaseIdGenerator.MAX_NODE_ID, () -> NOW);
+
+        long id = generator.nextId();
+
+        assertThat(CaseIdGenerator.nodeIdOf(id)).isEqualTo(CaseIdGenerator.MAX_NODE_ID);
+        assertThat(CaseIdGenerator.timestampOf(id)).isEqualTo(NOW);
+        assertThat(generator.nextCaseId()).isEqualTo(CaseIdGenerator.PREFIX + (id + 1));
+    }
+
+    @Test
+    void rejectsNodeIdsOutOfRange() {
+        assertThatThrownBy(() -> new CaseIdGenerator(-1, () -> NOW)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new CaseIdGenerator(CaseIdGenerator.MAX_NODE_ID + 1, () -> NOW))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void configuredNodeIdIsUsed() {
+        CaseIdProperties properties = new CaseIdProperties();
+        properties.setNodeId(42);
+
+        long id = new CaseIdGenerator(properties).nextId();
+
+        assertThat(CaseIdGenerator.nodeIdOf(id)).isEqualTo(42);
+    }
+
+    @Test
+    void missingNodeIdIsRejected() {
+        assertThatThrownBy(() -> new CaseIdGenerator(new CaseIdProperties()))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("account-service.case-ids.node-id");
+    }
+
+    @Test
+    void configuredNodeIdOutOfRangeIsRejected() {
+        CaseIdProperties properties = new CaseIdProperties();
+        properties.setNodeId(CaseIdGenerator.MAX_NODE_ID + 1);
+
+        assertThatThrownBy(() -> new CaseIdGenerator(properties))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,200 @@
+package com.example.account_service.util;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.OngoingStubbing;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import com.example.account_service.config.SidecarTokenProperties;
+import com.example.account_service.config.TaskExecutorFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class SidecarTokenServiceTest {
+
+    private final RestTemplate restTemplate = mock(RestTemplate.class);
+    private final SidecarTokenProperties properties = new SidecarTokenProperties();
+    private final TaskExecutorFactory taskExecutorFactory = new TaskExecutorFactory(new MockEnvironment());
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        callers.shutdownNow();
+        taskExecutorFactory.shutdown();
+    }
+
+    @Test
+    void concurrentCallersShareOneFetch() throws Exception {
+        String token = jwt(Instant.now().plus(Duration.ofHours(1)));
+        CountDownLatch fetching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        whenAuthnFetched().thenAnswer(invocation -> {
+            fetching.countDown();
+            release.await();
+            return ResponseEntity.ok(token);
+        });
+        SidecarTokenService service = service();
+
+        List<Future<String>> results = IntStream.range(0, 8)
+                .mapToObj(i -> callers.submit(service::fetchAuthnToken))
+                .toList();
+        assertThat(fetching.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(100);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(token);
+        }
+        verify(restTemplate, times(1)).exchange(eq(properties.getAuthnTokenUrl()), eq(HttpMethod.GET), any(),
+                eq(String.class));
+    }
+
+    @Test
+    void cachedTokenIsServedWithoutFetching() {
+        String token = jwt(Instant.now().plus(Duration.ofHours(1)));
+        whenAuthnFetched().thenReturn(ResponseEntity.ok(token));
+        SidecarTokenService service = service();
+
+        assertThat(service.fetchAuthnToken()).isEqualTo(token);
+        assertThat(service.fetchAuthnToken()).isEqualTo(token);
+
+        verify(restTemplate, times(1)).exchange(eq(properties.getAuthnTokenUrl()), eq(HttpMethod.GET), any(),
+                eq(String.class));
+    }
+
+    @Test
+    void tokenCloseToExpiryIsRefreshedInTheBackground() throws Exception {
+        // Valid for another minute, but within the two minutes of refresh-ahead
+        String expiring = jwt(Instant.now().plus(Duration.ofSeconds(90)));
+        String refreshed = jwt(Instant.now().plus(Duration.ofHours(1)));
+        CountDownLatch refreshing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        whenAuthnFetched()
+                .thenReturn(ResponseEntity.ok(expiring))
+                .thenAnswer(invocation -> {
+                    refreshing.countDown();
+                    release.await();
+                    return ResponseEntity.ok(refreshed);
+                });
+        SidecarTokenService service = service();
+        assertThat(service.fetchAuthnToken()).isEqualTo(expiring);
+
+        // The caller gets the cached token at once while the refresh waits for the sidecar
+        assertThat(callers.submit(service::fetchAuthnToken).get(1, TimeUnit.SECONDS)).isEqualTo(expiring);
+        assertThat(refreshing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.fetchAuthnToken()).isEqualTo(expiring);
+        release.countDown();
+
+        awaitToken(service, refreshed);
+        verify(restTemplate, times(2)).exchange(eq(properties.getAuthnTokenUrl()), eq(HttpMethod.GET), any(),
+                eq(String.class));
+    }
+
+    @Test
+    void failedBackgroundRefreshKeepsTheCachedToken() throws Exception {
+        String expiring = jwt(Instant.now().plus(Duration.ofSeconds(90)));
+        CountDownLatch refreshed = new CountDownLatch(1);
+        whenAuthnFetched()
+                .thenReturn(ResponseEntity.ok(expiring))
+                .thenAnswer(invocation -> {
+                    refreshed.countDown();
+                    throw new ResourceAccessException("Connection refused");
+                });
+        SidecarTokenService service = service();
+
+        assertThat(service.fetchAuthnToken()).isEqualTo(expiring);
+        assertThat(service.fetchAuthnToken()).isEqualTo(expiring);
+        assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.fetchAuthnToken()).isEqualTo(expiring);
+    }
+
+    @Test
+    void expiredTokenIsFetchedAgainBeforeUse() {
+        // Already within the expiry skew, so never handed out again
+        String expired = jwt(Instant.now().plus(Duration.ofSeconds(10)));
+        String fresh = jwt(Instant.now().plus(Duration.ofHours(1)));
+        whenAuthnFetched()
+                .thenReturn(ResponseEntity.ok(expired))
+                .thenReturn(ResponseEntity.ok(fresh));
+        SidecarTokenService service = service();
+
+        assertThat(service.fetchAuthnToken()).isEqualTo(expired);
+        assertThat(service.fetchAuthnToken()).isEqualTo(fresh);
+    }
+
+    @Test
+    void rejectedBackgroundRefreshDoesNotBlockLaterLookups() throws Exception {
+        // Every token is due for a refresh, and the first one expires within two seconds
+        properties.setExpirySkew(Duration.ZERO);
+        properties.setRefreshAhead(Duration.ofHours(2));
+        Instant expiry = Instant.now().plusSeconds(2);
+        String expiring = jwt(expiry);
+        String fresh = jwt(Instant.now().plus(Duration.ofHours(1)));
+        whenAuthnFetched()
+                .thenReturn(ResponseEntity.ok(expiring))
+                .thenReturn(ResponseEntity.ok(fresh));
+        SidecarTokenService service = service();
+        assertThat(service.fetchAuthnToken()).isEqualTo(expiring);
+
+        // The refresh executor is shut down, so the background refresh is rejected
+        taskExecutorFactory.shutdown();
+        assertThat(service.fetchAuthnToken()).isEqualTo(expiring);
+
+        while (Instant.now().isBefore(expiry.truncatedTo(ChronoUnit.SECONDS))) {
+            Thread.sleep(50);
+        }
+        assertThat(callers.submit(service::fetchAuthnToken).get(5, TimeUnit.SECONDS)).isEqualTo(fresh);
+    }
+
+    private SidecarTokenService service() {
+        return new SidecarTokenService(restTemplate, properties, new ObjectMapper(), taskExecutorFactory,
+                new SimpleMeterRegistry());
+    }
+
+    private OngoingStubbing<ResponseEntity<String>> whenAuthnFetched() {
+        return when(restTemplate.exchange(eq(properties.getAuthnTokenUrl()), eq(HttpMethod.GET), any(),
+                eq(String.class)));
+    }
+
+    private static void awaitToken(SidecarTokenService service, String expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!expected.equals(service.fetchAuthnToken()) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.fetchAuthnToken()).isEqualTo(expected);
+    }
+
+    private static String jwt(Instant expiresAt) {
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String header = encoder.encodeToString("{\"alg\":\"none\"}".getBytes(StandardCharsets.UTF_8));
+        String claims = encoder.encodeToString(("{\"exp\":" + expiresAt.getEpochSecond() + "}")
+                .getBytes(StandardCharsets.UTF_8));
+        return header + "." + claims + ".signature";
+    }
+}